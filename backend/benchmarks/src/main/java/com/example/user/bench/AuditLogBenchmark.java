@@ -0,0 +1,105 @@
+package com.example.user.bench;
+
+import com.example.user.UserMgntApplication;
+import com.example.user.audit.AuditLogWriter;
+import com.example.user.audit.AuditRecord;
+import com.example.user.service.UserChangedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the audit log ({@code users.audit.enabled}) adds to a create. {@code create} is the commit of
+ * {@code UserService.create} without BCrypt: an insert and the {@code CREATED} event in one transaction, so the
+ * after-commit hand-off to the writer thread is not hidden behind the hash. {@code append} is the writer's own cost
+ * per record into a mapped segment.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditLogBenchmark {
+    @Param({"false", "true"})
+    public boolean audit;
+
+    private ConfigurableApplicationContext ctx;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private ApplicationEventPublisher events;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("users-audit-bench");
+        ctx = new SpringApplicationBuilder(UserMgntApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:audit_bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--users.audit.enabled=" + audit,
+                        "--users.audit.dir=" + dir);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+        tx = ctx.getBean(TransactionTemplate.class);
+        events = ctx;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ctx.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public UUID create() {
+        UUID id = UUID.randomUUID();
+        Timestamp now = Timestamp.from(Instant.now());
+        tx.executeWithoutResult(status -> {
+            jdbc.update("""
+                    insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                    values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """, id, "Bench", "Audit", id + "@bench.local", "seed", true, now, now, 0L);
+            events.publishEvent(new UserChangedEvent(id, UserChangedEvent.Kind.CREATED));
+        });
+        return id;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Log {
+        AuditLogWriter writer;
+        Path dir;
+        final UUID userId = UUID.randomUUID();
+
+        @Setup(Level.Trial)
+        public void open() throws Exception {
+            dir = Files.createTempDirectory("users-audit-append-bench");
+            writer = new AuditLogWriter(dir, 1 << 20);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            writer.close();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long append(Log log) throws Exception {
+        return log.writer.append(System.nanoTime() / 1_000, log.userId, AuditRecord.Action.CREATED);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.user.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, e.g. {@code target/jmh/1.0.json target/jmh/1.1.json}, and prints the
+ * primary score and the normalized allocation rate of every benchmark present in both.
+ */
+public class BenchmarkDiff {
+    private static final String ALLOC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: BenchmarkDiff <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> base = index(args[0]);
+        Map<String, JsonNode> cand = index(args[1]);
+
+        System.out.printf("%-80s %14s %14s %8s %12s %12s%n", "benchmark", "baseline", "candidate", "delta", "B/op base", "B/op cand");
+        for (Map.Entry<String, JsonNode> e : base.entrySet()) {
+            JsonNode c = cand.get(e.getKey());
+            if (c == null) {
+                continue;
+            }
+            double b = e.getValue().path("primaryMetric").path("score").asDouble();
+            double n = c.path("primaryMetric").path("score").asDouble();
+            System.out.printf("%-80s %14.3f %14.3f %+7.1f%% %12.1f %12.1f  %s%n", e.getKey(), b, n,
+                    b == 0 ? 0 : (n - b) * 100 / b,
+                    e.getValue().path("secondaryMetrics").path(ALLOC).path("score").asDouble(Double.NaN),
+                    c.path("secondaryMetrics").path(ALLOC).path("score").asDouble(Double.NaN),
+                    c.path("primaryMetric").path("scoreUnit").asText());
+        }
+    }
+
+    private static Map<String, JsonNode> index(String file) throws Exception {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(new File(file))) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()).append(' ').append(run.path("mode").asText());
+            run.path("params").fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+}
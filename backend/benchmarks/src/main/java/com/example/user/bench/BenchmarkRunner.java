@@ -0,0 +1,41 @@
+package com.example.user.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the JMH benchmarks with the allocation profiler on and writes
+ * {@code target/jmh/<version>.json}, which {@link BenchmarkDiff} compares between two versions.
+ * Any JMH command line option (include regex, {@code -f}, {@code -p rows=1000}, ...) still applies.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        String version = System.getProperty("bench.target.version", "dev");
+        Path result = Path.of("target", "jmh", version + ".json");
+        Files.createDirectories(result.getParent());
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cli);
+        if (cli.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (cli.getResult().hasValue()) {
+            result = Path.of(cli.getResult().get());
+        }
+        Options options = builder
+                .resultFormat(cli.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + result.toAbsolutePath());
+    }
+}
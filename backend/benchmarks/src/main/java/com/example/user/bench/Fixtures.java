@@ -0,0 +1,70 @@
+package com.example.user.bench;
+
+import com.example.user.api.*;
+import com.example.user.configuration.BinaryContentConfig;
+import com.example.user.entity.UserEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static UserEntity entity(int i, Instant ts) {
+        return UserEntity.builder()
+                .id(UUID.randomUUID())
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("user" + i + "@bench.local")
+                .passwordHash("$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234")
+                .active(true)
+                .createdAt(ts)
+                .updatedAt(ts)
+                .version(0L)
+                .build();
+    }
+
+    static ApiResponseDto<PagedResponse<UserResponse>> page(int size) {
+        List<UserResponse> items = new ArrayList<>(size);
+        Instant now = Instant.now();
+        for (int i = 0; i < size; i++) {
+            items.add(UserEntity.toResponse(entity(i, now.minusSeconds(i))));
+        }
+        return ApiResponseDto.<PagedResponse<UserResponse>>builder()
+                .code(200)
+                .status("OK")
+                .data(PagedResponse.toPagedResponse(new PageImpl<>(items, PageRequest.of(0, size), 10_000)))
+                .build();
+    }
+
+    /** Same settings Spring Boot applies to the application's ObjectMapper, including the {@code @JsonComponent}s. */
+    static ObjectMapper objectMapper() {
+        return reflectiveObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(new UserJsonSerializers.UserResponseSerializer())
+                .addSerializer(new UserJsonSerializers.PageMetaSerializer()));
+    }
+
+    /** The application's CBOR/Smile mapper on top of {@code factory}. */
+    static ObjectMapper binaryObjectMapper(JsonFactory factory) {
+        return BinaryContentConfig.binaryMapper(Jackson2ObjectMapperBuilder.json()
+                .serializers(new UserJsonSerializers.UserResponseSerializer(), new UserJsonSerializers.PageMetaSerializer()),
+                factory);
+    }
+
+    /** Spring Boot's settings with Jackson's bean serializers only, as before {@link UserJsonSerializers}. */
+    static ObjectMapper reflectiveObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
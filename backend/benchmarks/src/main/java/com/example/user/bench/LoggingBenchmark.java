@@ -0,0 +1,98 @@
+package com.example.user.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.user.UserMgntApplication;
+import com.example.user.api.UserFilter;
+import com.example.user.api.UserResponse;
+import com.example.user.logging.JsonEncoder;
+import com.example.user.logging.RingBufferAppender;
+import com.example.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getList} with {@link UserService} logging at DEBUG into a JSON file: not at all ({@code off}),
+ * through a plain file appender on the request thread ({@code sync}), or through the
+ * {@link RingBufferAppender} of the json-logs profile ({@code async}). Four threads, so the lock of the
+ * synchronous appender is contended the way it is under load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    @Param({"off", "sync", "async"})
+    public String logging;
+
+    private ConfigurableApplicationContext ctx;
+    private UserService service;
+    private Path logFile;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws Exception {
+        ctx = new SpringApplicationBuilder(UserMgntApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench_logging;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--logging.level.root=WARN");
+        service = ctx.getBean(UserService.class);
+        UserServiceBenchmark.seed(ctx.getBean(JdbcTemplate.class), 10_000);
+
+        // Spring Boot configured logback during startup, so rewire it only now
+        LoggerContext logback = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = logback.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        logFile = Files.createTempFile("bench-logging-", ".jsonl");
+
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(logback);
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(logback);
+        file.setName("FILE");
+        file.setFile(logFile.toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (logging.equals("async")) {
+            RingBufferAppender ring = new RingBufferAppender();
+            ring.setContext(logback);
+            ring.setName("ASYNC");
+            ring.addAppender(file);
+            ring.start();
+            appender = ring;
+        }
+        root.addAppender(appender);
+        logback.getLogger(UserService.class).setLevel(logging.equals("off") ? Level.OFF : Level.DEBUG);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws Exception {
+        LoggerContext logback = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logback.getLogger(Logger.ROOT_LOGGER_NAME).detachAndStopAllAppenders();
+        ctx.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public Page<UserResponse> getList() {
+        return service.getList(UserFilter.builder().active(true).build(), 0, 20, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.user.bench;
+
+import com.example.user.domain.PasswordPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PasswordPolicy} (single-pass {@code PasswordRules}) against {@link LegacyPasswordPolicy}, the regex version
+ * it replaced. Run with {@code -prof gc} for the allocation per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordPolicyBenchmark {
+    private final PasswordPolicy policy = new PasswordPolicy();
+    private final LegacyPasswordPolicy legacy = new LegacyPasswordPolicy();
+
+    @Benchmark
+    public void strongPassword() {
+        policy.validate("user@other.com", "Abcdef1!Ghij");
+    }
+
+    @Benchmark
+    public void exampleDomain() {
+        policy.validate("User@Example.com", "Abcdef1!Ghijkl");
+    }
+
+    @Benchmark
+    public Object weakPassword() {
+        try {
+            policy.validate("user@other.com", "abcdefghijkl");
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void legacyStrongPassword() {
+        legacy.validate("user@other.com", "Abcdef1!Ghij");
+    }
+
+    @Benchmark
+    public void legacyExampleDomain() {
+        legacy.validate("User@Example.com", "Abcdef1!Ghijkl");
+    }
+
+    @Benchmark
+    public Object legacyWeakPassword() {
+        try {
+            legacy.validate("user@other.com", "abcdefghijkl");
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.user.bench;
+
+/**
+ * Prints the encoded size of a {@code GET /api/users} page in every format {@link SerializationBenchmark}
+ * measures, e.g. {@code java -cp ... com.example.user.bench.PayloadSizeReport 20 100}.
+ */
+public class PayloadSizeReport {
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : new String[]{"1", "20", "100"};
+        String[] formats = {"streaming", "cbor", "smile"};
+        System.out.printf("%-10s %10s %10s %10s%n", "page size", "json", "cbor", "smile");
+        for (String size : sizes) {
+            var page = Fixtures.page(Integer.parseInt(size));
+            System.out.printf("%-10s", size);
+            for (String format : formats) {
+                System.out.printf(" %10d", SerializationBenchmark.mapper(format).writeValueAsBytes(page).length);
+            }
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.user.bench;
+
+import com.example.user.api.ApiResponseDto;
+import com.example.user.api.PagedResponse;
+import com.example.user.api.UserResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A page of users written and read back the way {@code GET /api/users} does it:
+ * {@code streaming} is JSON with {@link com.example.user.api.UserJsonSerializers}, {@code reflective} is JSON
+ * with Jackson's bean serializers, {@code cbor} and {@code smile} are the binary encodings offered for
+ * {@code Accept: application/cbor} and {@code application/x-jackson-smile}. Run with the GC profiler (the
+ * default of {@link BenchmarkRunner}) to see the allocation per page; {@link PayloadSizeReport} prints the sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    static final TypeReference<ApiResponseDto<PagedResponse<UserResponse>>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"streaming", "reflective", "cbor", "smile"})
+    public String serializer;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private ApiResponseDto<PagedResponse<UserResponse>> body;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = mapper(serializer);
+        writer = mapper.writer();
+        reader = mapper.readerFor(PAGE_TYPE);
+        body = Fixtures.page(pageSize);
+        encoded = writer.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] pagedResponse() throws Exception {
+        return writer.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public ApiResponseDto<PagedResponse<UserResponse>> parsePagedResponse() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    static ObjectMapper mapper(String serializer) {
+        return switch (serializer) {
+            case "streaming" -> Fixtures.objectMapper();
+            case "reflective" -> Fixtures.reflectiveObjectMapper();
+            case "cbor" -> Fixtures.binaryObjectMapper(new CBORFactory());
+            case "smile" -> Fixtures.binaryObjectMapper(new SmileFactory());
+            default -> throw new IllegalArgumentException(serializer);
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.user.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time from {@code java} being launched to the first {@code 200} of {@code GET /api/users/stats}, for the jar of
+ * {@code mvn -Pfast-start package} started plain, with the lazy beans of the {@code fast-start} profile, with the
+ * AOT bean definitions, with the CDS archive, and with both. Each variant boots {@code runs} times in a fresh JVM,
+ * e.g. {@code java -cp ... com.example.user.bench.StartupBenchmark ../target/user-mgnt-1.0-SNAPSHOT.jar 5}.
+ */
+public class StartupBenchmark {
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "../target/user-mgnt-1.0-SNAPSHOT.jar").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path archive = jar.resolveSibling(jar.getFileName().toString().replaceFirst("\\.jar$", ".jsa"));
+        if (!Files.exists(jar) || !Files.exists(archive)) {
+            throw new IllegalArgumentException("Build " + jar + " and " + archive.getFileName() + " with mvn -Pfast-start package first");
+        }
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("plain", List.of());
+        variants.put("lazy", List.of("--spring.profiles.active=fast-start"));
+        variants.put("cds", List.of("-XX:SharedArchiveFile=" + archive, "--spring.profiles.active=fast-start"));
+        variants.put("aot", List.of("-Dspring.aot.enabled=true"));
+        variants.put("aot+cds", List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        System.out.printf("%-10s %12s %12s %12s %14s%n", "variant", "first ms", "min ms", "max ms", "started ms");
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            long[] firstRequest = new long[runs];
+            long[] started = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                long[] sample = boot(client, jar, variant.getValue());
+                firstRequest[i] = sample[0];
+                started[i] = sample[1];
+            }
+            Arrays.sort(firstRequest);
+            Arrays.sort(started);
+            System.out.printf("%-10s %12d %12d %12d %14d%n", variant.getKey(), firstRequest[runs / 2],
+                    firstRequest[0], firstRequest[runs - 1], started[runs / 2]);
+        }
+    }
+
+    /** Returns {time to the first successful request, startup time the app logged}, both in milliseconds. */
+    private static long[] boot(HttpClient client, Path jar, List<String> options) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of("java", "-Xlog:cds=error"));
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=" + port));
+        for (String option : options) {
+            (option.startsWith("--") ? appArgs : command).add(option);
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(appArgs);
+
+        HttpRequest stats = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/stats"))
+                .timeout(Duration.ofSeconds(5)).build();
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        AtomicLong startedMillis = new AtomicLong(-1);
+        Thread reader = new Thread(() -> readStarted(process, startedMillis), "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("App exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - begin > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No successful request within " + TIMEOUT + ": " + command);
+                }
+                try {
+                    if (client.send(stats, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long elapsed = (System.nanoTime() - begin) / 1_000_000;
+                        for (int wait = 0; wait < 100 && startedMillis.get() < 0; wait++) {
+                            Thread.sleep(10);
+                        }
+                        return new long[]{elapsed, startedMillis.get()};
+                    }
+                } catch (ConnectException | HttpConnectTimeoutException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void readStarted(Process process, AtomicLong startedMillis) {
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                Matcher m = STARTED.matcher(line);
+                if (m.find()) {
+                    startedMillis.set(Math.round(Double.parseDouble(m.group(1)) * 1000));
+                }
+            }
+        } catch (Exception e) {
+            // the process was stopped
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.user.bench;
+
+import com.example.user.UserMgntApplication;
+import com.example.user.api.UserFilter;
+import com.example.user.api.UserResponse;
+import com.example.user.api.UserStatsResponseDto;
+import com.example.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Insert and search throughput of the in-memory H2 against the file-backed one of the {@code durable} profile
+ * (tuned cache, page split size and write delay from application-durable.yml) at 1M rows. Inserts are JDBC batches
+ * of {@value #BATCH} rows, so the numbers are storage cost, not BCrypt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    private static final int BATCH = 100;
+
+    @Param({"mem", "file"})
+    public String mode;
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext ctx;
+    private UserService service;
+    private JdbcTemplate jdbc;
+    private Path dir;
+    private final AtomicLong seq = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> args = new ArrayList<>(List.of("--spring.jpa.show-sql=false", "--logging.level.root=WARN"));
+        if (mode.equals("file")) {
+            dir = Files.createTempDirectory("users-storage-bench");
+            args.add("--spring.profiles.active=durable");
+            args.add("--users.storage.dir=" + dir);
+            args.add("--users.storage.snapshot-interval=0s");
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:storage_bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        }
+        ctx = new SpringApplicationBuilder(UserMgntApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        service = ctx.getBean(UserService.class);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+        UserServiceBenchmark.seed(jdbc, rows);
+        if (dir != null) {
+            jdbc.execute("CHECKPOINT SYNC");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ctx.close();
+        if (dir != null) {
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertBatch() {
+        Timestamp ts = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Object[]{UUID.randomUUID(), "Bench", "Insert", "insert" + seq.incrementAndGet() + "@bench.local",
+                    "seed", true, ts, ts, 0L});
+        }
+        return jdbc.batchUpdate("""
+                insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, batch);
+    }
+
+    @Benchmark
+    public Page<UserResponse> listFirstPage() {
+        return service.getList(UserFilter.builder().active(true).build(), 0, 20, null);
+    }
+
+    @Benchmark
+    public Page<UserResponse> search() {
+        return service.getList(UserFilter.builder().q("user12345").active(true).build(), 0, 20, null);
+    }
+
+    @Benchmark
+    public UserStatsResponseDto stats() {
+        return service.getStats();
+    }
+}
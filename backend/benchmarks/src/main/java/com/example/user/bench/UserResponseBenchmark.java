@@ -0,0 +1,29 @@
+package com.example.user.bench;
+
+import com.example.user.api.UserResponse;
+import com.example.user.entity.UserEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserResponseBenchmark {
+    private UserEntity entity;
+
+    @Setup
+    public void setUp() {
+        entity = Fixtures.entity(0, Instant.now());
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return UserEntity.toResponse(entity);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.user.bench;
+
+import com.example.user.UserMgntApplication;
+import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserFilter;
+import com.example.user.api.UserResponse;
+import com.example.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link UserService} against embedded H2 (same settings as application.yml) at several table sizes.
+ * {@code create} is dominated by BCrypt on purpose, that is what a signup costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext ctx;
+    private UserService service;
+    private final AtomicLong seq = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // command line arguments, so they win over application.yml
+        ctx = new SpringApplicationBuilder(UserMgntApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench_" + rows + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.root=WARN");
+        service = ctx.getBean(UserService.class);
+        seed(ctx.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Page<UserResponse> getListFirstPage() {
+        return service.getList(UserFilter.builder().active(true).build(), 0, 20, null);
+    }
+
+    @Benchmark
+    public Page<UserResponse> getListSearch() {
+        return service.getList(UserFilter.builder().q("user12").active(true).build(), 0, 20, null);
+    }
+
+    @Benchmark
+    public UserResponse create() {
+        return service.create(CreateUserRequest.builder()
+                .firstName("Bench")
+                .lastName("Create")
+                .email("create" + seq.incrementAndGet() + "@bench.local")
+                .password("Secret1!x")
+                .build());
+    }
+
+    static void seed(JdbcTemplate jdbc, int rows) {
+        Instant now = Instant.now();
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < rows; i++) {
+            Timestamp ts = Timestamp.from(now.minusSeconds(i));
+            batch.add(new Object[]{UUID.randomUUID(), "First" + i, "Last" + i, "user" + i + "@bench.local",
+                    "seed", i % 10 != 0, ts, ts, 0L});
+            if (batch.size() == 1000 || i == rows - 1) {
+                jdbc.batchUpdate("""
+                        insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                        values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """, batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.user.loadgen;
+
+public enum Endpoint {
+    CREATE,
+    LIST,
+    SEARCH,
+    DELETE,
+    STATS;
+
+    public String key() {
+        return name().toLowerCase();
+    }
+}
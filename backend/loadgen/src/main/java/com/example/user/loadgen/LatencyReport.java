@@ -0,0 +1,75 @@
+package com.example.user.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prints p50/p99/p99.9 per endpoint and writes {@code summary.json} plus one {@code .hgrm} percentile
+ * distribution per endpoint (HdrHistogram plotter format), so two runs can be compared file by file.
+ */
+public class LatencyReport {
+    private final LoadProfile profile;
+    private final Map<Endpoint, Histogram> latencies;
+    private final Map<Endpoint, AtomicLong> errors;
+    private final Map<Endpoint, AtomicLong> dropped;
+
+    public LatencyReport(LoadProfile profile, Map<Endpoint, Histogram> latencies,
+                         Map<Endpoint, AtomicLong> errors, Map<Endpoint, AtomicLong> dropped) {
+        this.profile = profile;
+        this.latencies = latencies;
+        this.errors = errors;
+        this.dropped = dropped;
+    }
+
+    public void write() throws Exception {
+        Files.createDirectories(profile.outputDir());
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("label", profile.label());
+        summary.put("rate", profile.rate());
+        summary.put("durationSeconds", profile.duration().toSeconds());
+        summary.put("randomSeed", profile.randomSeed());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+
+        System.out.printf("%-8s %9s %7s %7s %10s %10s %10s %10s%n", "endpoint", "count", "errors", "dropped",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, Histogram> e : latencies.entrySet()) {
+            Histogram h = e.getValue();
+            if (h.getTotalCount() == 0 && dropped.get(e.getKey()).get() == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", h.getTotalCount());
+            row.put("errors", errors.get(e.getKey()).get());
+            row.put("dropped", dropped.get(e.getKey()).get());
+            row.put("p50Ms", ms(h.getValueAtPercentile(50)));
+            row.put("p90Ms", ms(h.getValueAtPercentile(90)));
+            row.put("p99Ms", ms(h.getValueAtPercentile(99)));
+            row.put("p999Ms", ms(h.getValueAtPercentile(99.9)));
+            row.put("maxMs", ms(h.getMaxValue()));
+            endpoints.put(e.getKey().key(), row);
+
+            System.out.printf("%-8s %9d %7d %7d %10.2f %10.2f %10.2f %10.2f%n", e.getKey().key(), h.getTotalCount(),
+                    errors.get(e.getKey()).get(), dropped.get(e.getKey()).get(), ms(h.getValueAtPercentile(50)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+
+            try (PrintStream out = new PrintStream(profile.outputDir().resolve(e.getKey().key() + ".hgrm").toFile())) {
+                h.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        summary.put("endpoints", endpoints);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(profile.outputDir().resolve("summary.json").toFile(), summary);
+        System.out.println("Results written to " + profile.outputDir().toAbsolutePath());
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
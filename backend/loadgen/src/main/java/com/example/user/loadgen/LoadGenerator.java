@@ -0,0 +1,211 @@
+package com.example.user.loadgen;
+
+import com.example.user.UserMgntApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load against {@code /api/users}: requests are scheduled at a fixed arrival rate and
+ * latency is measured from the time a request <em>should</em> have been sent, so a stalled server shows
+ * up in the percentiles instead of silently slowing the generator down (no coordinated omission).
+ */
+public class LoadGenerator {
+    private static final String[] SEARCH_TERMS = {"user1", "user2", "seed", "load", "israel"};
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final LoadProfile profile;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> dropped = new EnumMap<>(Endpoint.class);
+    private final Queue<String> deletable = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong emailSeq = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public LoadGenerator(LoadProfile profile, String baseUrl) {
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        for (Endpoint e : Endpoint.values()) {
+            latencies.put(e, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+            errors.put(e, new AtomicLong());
+            dropped.put(e, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        ConfigurableApplicationContext app = null;
+        String baseUrl = profile.target();
+        if (baseUrl == null) {
+            app = bootInMemory();
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadGenerator generator = new LoadGenerator(profile, baseUrl);
+            generator.seed();
+            generator.run();
+            new LatencyReport(profile, generator.latencies, generator.errors, generator.dropped).write();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext bootInMemory() {
+        // command line arguments, so they win over application.yml
+        return new SpringApplicationBuilder(UserMgntApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadgen;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    void seed() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < profile.seedUsers(); i++) {
+                futures.add(pool.submit(() -> {
+                    HttpResponse<String> res = client.send(request(Endpoint.CREATE), HttpResponse.BodyHandlers.ofString());
+                    rememberCreated(res);
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf("Seeded %d users against %s%n", deletable.size(), baseUrl);
+    }
+
+    void run() throws InterruptedException {
+        Random random = new Random(profile.randomSeed());
+        Endpoint[] wheel = wheel(profile.mix());
+        long interval = TimeUnit.SECONDS.toNanos(1) / profile.rate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long recordFrom = start + profile.warmup().toNanos();
+        long end = recordFrom + profile.duration().toNanos();
+
+        System.out.printf("Running %d req/s for %s (+%s warm-up)%n", profile.rate(), profile.duration(), profile.warmup());
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            boolean record = intended >= recordFrom;
+            if (inFlight.get() >= profile.maxInFlight()) {
+                if (record) {
+                    dropped.get(endpoint).incrementAndGet();
+                }
+                continue;
+            }
+            fire(endpoint, intended, record, random);
+        }
+
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void fire(Endpoint endpoint, long intended, boolean record, Random random) {
+        HttpRequest req = switch (endpoint) {
+            case SEARCH -> get("/api/users?size=20&q=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+            case LIST -> get("/api/users?size=20&page=" + random.nextInt(5));
+            default -> request(endpoint);
+        };
+        inFlight.incrementAndGet();
+        client.sendAsync(req, HttpResponse.BodyHandlers.ofString()).whenComplete((res, err) -> {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            inFlight.decrementAndGet();
+            if (endpoint == Endpoint.CREATE && res != null) {
+                rememberCreated(res);
+            }
+            if (!record) {
+                return;
+            }
+            latencies.get(endpoint).recordValue(Math.min(micros, HIGHEST_MICROS));
+            if (err != null || !expected(endpoint, res.statusCode())) {
+                errors.get(endpoint).incrementAndGet();
+            }
+        });
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        return switch (endpoint) {
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/users"))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"firstName":"Load","lastName":"Gen","email":"load-%s-%d@loadgen.local","password":"Secret1!x"}
+                            """.formatted(runId, emailSeq.incrementAndGet())))
+                    .build();
+            case DELETE -> {
+                String id = deletable.poll();
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/" + (id != null ? id : UUID.randomUUID()) + "?soft=true"))
+                        .timeout(Duration.ofSeconds(60))
+                        .DELETE()
+                        .build();
+            }
+            case STATS -> get("/api/users/stats");
+            default -> get("/api/users");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private void rememberCreated(HttpResponse<String> res) {
+        if (res.statusCode() != 201) {
+            return;
+        }
+        String body = res.body();
+        int at = body.indexOf("\"id\":\"");
+        if (at >= 0) {
+            deletable.add(body.substring(at + 6, body.indexOf('"', at + 6)));
+        }
+    }
+
+    // a delete that finds nothing left to delete is still a served request
+    private static boolean expected(Endpoint endpoint, int status) {
+        return status < 400 || (endpoint == Endpoint.DELETE && status == 404);
+    }
+
+    private static Endpoint[] wheel(Map<Endpoint, Integer> mix) {
+        List<Endpoint> wheel = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> wheel.addAll(Collections.nCopies(weight, endpoint)));
+        return wheel.toArray(new Endpoint[0]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.user.loadgen;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load generator, all {@code --key=value}:
+ * <pre>
+ * --target=http://host:9090   hit a running server instead of booting one on in-memory H2
+ * --rate=500                  requests per second, fixed arrival rate
+ * --warmup=10s --duration=60s recorded only after the warm-up
+ * --mix=create:10,list:45,search:20,delete:5,stats:20
+ * --seed-users=200            users created before the run (delete targets)
+ * --random-seed=42            same seed, same request sequence
+ * --max-in-flight=10000       beyond this requests are counted as dropped instead of sent
+ * --label=baseline            results go to target/loadgen/&lt;label&gt;/
+ * </pre>
+ */
+public record LoadProfile(String target,
+                          int rate,
+                          Duration warmup,
+                          Duration duration,
+                          Map<Endpoint, Integer> mix,
+                          int seedUsers,
+                          long randomSeed,
+                          int maxInFlight,
+                          String label,
+                          Path outputDir) {
+
+    public static LoadProfile parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got " + arg);
+            }
+            String[] kv = arg.substring(2).split("=", 2);
+            opts.put(kv[0], kv[1]);
+        }
+        String label = opts.getOrDefault("label", "run");
+        return new LoadProfile(
+                opts.get("target"),
+                Integer.parseInt(opts.getOrDefault("rate", "500")),
+                DurationStyle.detectAndParse(opts.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(opts.getOrDefault("duration", "60s")),
+                parseMix(opts.getOrDefault("mix", "create:10,list:45,search:20,delete:5,stats:20")),
+                Integer.parseInt(opts.getOrDefault("seed-users", "200")),
+                Long.parseLong(opts.getOrDefault("random-seed", "42")),
+                Integer.parseInt(opts.getOrDefault("max-in-flight", "10000")),
+                label,
+                Path.of(opts.getOrDefault("output", "target/loadgen"), label));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            weights.put(Endpoint.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
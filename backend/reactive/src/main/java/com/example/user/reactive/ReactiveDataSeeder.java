@@ -0,0 +1,49 @@
+package com.example.user.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fills the in-memory database with synthetic users so the benchmark has something to read.
+ * Password hashes are placeholders, this stack never authenticates anyone.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.reactive.seed-rows")
+public class ReactiveDataSeeder implements ApplicationRunner {
+    @Autowired
+    private DatabaseClient db;
+    @Value("${users.reactive.seed-rows}")
+    private int rows;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDateTime now = LocalDateTime.now();
+        Long inserted = Flux.range(0, rows)
+                .concatMap(i -> db.sql("""
+                                insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                                values (:id, :firstName, :lastName, :email, 'seed', :active, :ts, :ts, 0)
+                                """)
+                        .bind("id", UUID.randomUUID())
+                        .bind("firstName", "User" + i)
+                        .bind("lastName", "Seed")
+                        .bind("email", "user" + i + "@seed.local")
+                        .bind("active", i % 10 != 0)
+                        .bind("ts", now.minusSeconds(i))
+                        .fetch()
+                        .rowsUpdated(), 16)
+                .count()
+                .block();
+        log.info("Seeded {} users", inserted);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.user.reactive;
+
+import com.example.user.api.ApiResponseDto;
+import com.example.user.exceptions.NotFoundRecordException;
+import com.example.user.exceptions.RequiredParamsException;
+import com.example.user.utils.ResponseBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+@RestControllerAdvice
+public class ReactiveExceptionController {
+
+    @ExceptionHandler(NotFoundRecordException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleNotFound(NotFoundRecordException ex) {
+        return ResponseBuilder.error(HttpStatus.NOT_FOUND.value(), "NOT_FOUND", ex.getMessage());
+    }
+
+    @ExceptionHandler(RequiredParamsException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleRequiredParams(RequiredParamsException ex) {
+        return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "BAD_REQUEST", ex.getMessage());
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleBadInput(ServerWebInputException ex) {
+        return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "BAD_REQUEST", ex.getReason());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleGeneric(Exception ex) {
+        return ResponseBuilder.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "INTERNAL_ERROR", "Unexpected error");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.user.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveUserApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveUserApplication.class, args);
+    }
+}
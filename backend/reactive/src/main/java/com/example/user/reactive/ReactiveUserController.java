@@ -0,0 +1,47 @@
+package com.example.user.reactive;
+
+import com.example.user.api.ApiResponseDto;
+import com.example.user.api.PagedResponse;
+import com.example.user.api.UserResponse;
+import com.example.user.api.UserStatsResponseDto;
+import com.example.user.utils.ResponseBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping(path = "/api/users")
+public class ReactiveUserController {
+    @Autowired
+    private ReactiveUserService userService;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ApiResponseDto<PagedResponse<UserResponse>>>> userList(@RequestParam(defaultValue = "0") int page,
+                                                                                     @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String q,
+                                                                                     @RequestParam(defaultValue = "true") boolean activeOnly, @RequestParam(required = false) String sort) {
+        return userService.getList(q, activeOnly, page, size, sort).map(ResponseBuilder::success);
+    }
+
+    // rows are written to the client one per line as soon as the driver emits them
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponse> userStream(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String q,
+                                         @RequestParam(defaultValue = "true") boolean activeOnly, @RequestParam(required = false) String sort) {
+        return userService.stream(q, activeOnly, page, size, sort);
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ApiResponseDto<UserResponse>>> getById(@PathVariable UUID id) {
+        return userService.getById(id).map(ResponseBuilder::success);
+    }
+
+    @GetMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ApiResponseDto<UserStatsResponseDto>>> stats() {
+        return userService.getStats().map(ResponseBuilder::success);
+    }
+}
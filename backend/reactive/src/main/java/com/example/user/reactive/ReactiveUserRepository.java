@@ -0,0 +1,112 @@
+package com.example.user.reactive;
+
+import com.example.user.api.UserResponse;
+import com.example.user.exceptions.RequiredParamsException;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Same queries as the JPA {@code UserRepository}, written against the {@code users} table with R2DBC.
+ * Rows are mapped straight to {@link UserResponse} so nothing is materialized twice.
+ */
+@Repository
+public class ReactiveUserRepository {
+    private static final String COLUMNS = "id, first_name, last_name, email, is_active, created_at, updated_at";
+    // the servlet API's SORTABLE: each has an index in that order with id as the tie-break
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    @Autowired
+    private DatabaseClient db;
+
+    public Flux<UserResponse> search(String q, boolean activeOnly, String sort, long offset, int limit) {
+        String sql = "select " + COLUMNS + " from users" + where(q, activeOnly)
+                + " order by " + orderBy(sort) + " limit :limit offset :offset";
+        return bindQuery(db.sql(sql), q)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map((row, meta) -> toResponse(row))
+                .all();
+    }
+
+    public Mono<Long> countSearch(String q, boolean activeOnly) {
+        return bindQuery(db.sql("select count(*) from users" + where(q, activeOnly)), q)
+                .map((row, meta) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<UserResponse> findById(UUID id) {
+        return db.sql("select " + COLUMNS + " from users where id = :id")
+                .bind("id", id)
+                .map((row, meta) -> toResponse(row))
+                .one();
+    }
+
+    public Mono<Long> countUsersCreatedSince(Instant since) {
+        return db.sql("select count(*) from users where created_at >= :since")
+                .bind("since", LocalDateTime.ofInstant(since, ZoneId.systemDefault()))
+                .map((row, meta) -> row.get(0, Long.class))
+                .one();
+    }
+
+    // only the predicates that are actually needed end up in the statement
+    private static String where(String q, boolean activeOnly) {
+        StringBuilder sb = new StringBuilder();
+        if (hasText(q)) {
+            sb.append(" where (lower(first_name) like :q or lower(last_name) like :q or lower(email) like :q)");
+        }
+        if (activeOnly) {
+            sb.append(sb.length() == 0 ? " where" : " and").append(" is_active = true");
+        }
+        return sb.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindQuery(DatabaseClient.GenericExecuteSpec spec, String q) {
+        return hasText(q) ? spec.bind("q", "%" + q.toLowerCase() + "%") : spec;
+    }
+
+    /** {@code property[,asc|desc]} as in the servlet API; ties are broken by id so pages never repeat or skip rows. */
+    static String orderBy(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return "created_at desc, id desc";
+        }
+        String[] parts = sort.split(",", 2);
+        String column = SORT_COLUMNS.get(parts[0].trim());
+        if (column == null) {
+            throw new RequiredParamsException("sort must be one of createdAt, updatedAt");
+        }
+        String dir = parts.length > 1 && "asc".equalsIgnoreCase(parts[1].trim()) ? " asc" : " desc";
+        return column + dir + ", id" + dir;
+    }
+
+    private static boolean hasText(String q) {
+        return q != null && !q.isEmpty();
+    }
+
+    private static UserResponse toResponse(Row row) {
+        return UserResponse.builder()
+                .id(row.get("id", UUID.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .active(Boolean.TRUE.equals(row.get("is_active", Boolean.class)))
+                .createdAt(toInstant(row.get("created_at", LocalDateTime.class)))
+                .updatedAt(toInstant(row.get("updated_at", LocalDateTime.class)))
+                .build();
+    }
+
+    private static Instant toInstant(LocalDateTime ts) {
+        return ts == null ? null : ts.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
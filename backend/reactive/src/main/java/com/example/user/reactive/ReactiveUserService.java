@@ -0,0 +1,55 @@
+package com.example.user.reactive;
+
+import com.example.user.api.PagedResponse;
+import com.example.user.api.UserResponse;
+import com.example.user.api.UserStatsResponseDto;
+import com.example.user.exceptions.NotFoundRecordException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+@Service
+public class ReactiveUserService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReactiveUserRepository repo;
+
+    public Mono<PagedResponse<UserResponse>> getList(String q, boolean activeOnly, int page, int size, String sort) {
+        int safePage = safePage(page);
+        int safeSize = safeSize(size);
+        return Mono.zip(stream(q, activeOnly, safePage, safeSize, sort).collectList(), repo.countSearch(q, activeOnly))
+                .map(t -> PagedResponse.toPagedResponse(
+                        new PageImpl<>(t.getT1(), PageRequest.of(safePage, safeSize), t.getT2())));
+    }
+
+    public Flux<UserResponse> stream(String q, boolean activeOnly, int page, int size, String sort) {
+        int safeSize = safeSize(size);
+        return repo.search(q, activeOnly, sort, (long) safePage(page) * safeSize, safeSize);
+    }
+
+    public Mono<UserResponse> getById(UUID id) {
+        return repo.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundRecordException("User not found")));
+    }
+
+    public Mono<UserStatsResponseDto> getStats() {
+        return repo.countUsersCreatedSince(Instant.now().minus(24, ChronoUnit.HOURS))
+                .map(count -> UserStatsResponseDto.builder().createdLast24h(count).build());
+    }
+
+    private static int safePage(int page) {
+        return Math.max(0, page);
+    }
+
+    private static int safeSize(int size) {
+        return Math.max(1, Math.min(size <= 0 ? 20 : size, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.user.reactive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive_test?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "users.reactive.seed-rows=30"
+})
+@AutoConfigureWebTestClient
+class ReactiveUserControllerTest {
+
+    @Autowired
+    WebTestClient client;
+
+    @Test
+    @DisplayName("getList")
+    void getListTest() {
+        client.get().uri("/api/users?size=5&activeOnly=false")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("OK")
+                .jsonPath("$.data.items.length()").isEqualTo(5)
+                .jsonPath("$.data.items[0].email").isEqualTo("user0@seed.local")
+                .jsonPath("$.data.meta.totalElements").isEqualTo(30)
+                .jsonPath("$.data.meta.hasNext").isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("searchActiveOnly")
+    void searchActiveOnlyTest() {
+        client.get().uri("/api/users?q=USER1&activeOnly=true")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                // user1, user11..user19 minus the inactive user10
+                .jsonPath("$.data.meta.totalElements").isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("streamNdjson")
+    void streamNdjsonTest() {
+        client.get().uri("/api/users?size=7")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Object.class).hasSize(7);
+    }
+
+    @Test
+    @DisplayName("sortByUpdatedAtAsc")
+    void sortByUpdatedAtAscTest() {
+        client.get().uri("/api/users?size=3&activeOnly=false&sort=updatedAt,asc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.items.length()").isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("unsupportedSortRejected")
+    void unsupportedSortRejectedTest() {
+        for (String sort : new String[]{"email,asc", "firstName", "nope,desc"}) {
+            client.get().uri("/api/users?sort={sort}", sort)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo("BAD_REQUEST");
+            client.get().uri("/api/users?sort={sort}", sort)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .exchange()
+                    .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    @DisplayName("getByIdNotFound")
+    void getByIdNotFoundTest() {
+        client.get().uri("/api/users/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("NOT_FOUND");
+    }
+
+    @Test
+    @DisplayName("getStats")
+    void getStatsTest() {
+        client.get().uri("/api/users/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.createdLast24h").isEqualTo(30);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.user.reactive.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop comparison of the servlet and the reactive stack at growing connection counts.
+ * Start both applications (9090 and 9091) with the same number of rows first, e.g.
+ * {@code users.reactive.seed-rows=10000} for the reactive one, then run:
+ * <pre>
+ * java ConnectionScalingBenchmark [servletBase] [reactiveBase] [path] [seconds] [connections...]
+ * </pre>
+ */
+public class ConnectionScalingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String servlet = args.length > 0 ? args[0] : "http://localhost:9090";
+        String reactive = args.length > 1 ? args[1] : "http://localhost:9091";
+        String path = args.length > 2 ? args[2] : "/api/users?size=50&activeOnly=false";
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        int[] connections = args.length > 4
+                ? Arrays.stream(args, 4, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{16, 64, 256, 1024};
+
+        System.out.printf("%-9s %6s %10s %9s %9s %9s %7s%n", "stack", "conns", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (int c : connections) {
+            report("servlet", c, run(servlet + path, c, seconds));
+            report("reactive", c, run(reactive + path, c, seconds));
+        }
+    }
+
+    private static Result run(String url, int connections, int seconds) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(Math.max(1, seconds / 5)).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> perWorker = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(connections);
+
+        for (int w = 0; w < connections; w++) {
+            long[] samples = new long[1 << 16];
+            int[] count = new int[1];
+            perWorker.add(samples);
+            counts.add(count);
+            Thread t = new Thread(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        try {
+                            HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long took = System.nanoTime() - now;
+                            if (res.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            } else if (now >= warmupEnd && count[0] < samples.length) {
+                                samples[count[0]++] = took;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+
+        int total = counts.stream().mapToInt(c -> c[0]).sum();
+        long[] all = new long[total];
+        int pos = 0;
+        for (int i = 0; i < perWorker.size(); i++) {
+            System.arraycopy(perWorker.get(i), 0, all, pos, counts.get(i)[0]);
+            pos += counts.get(i)[0];
+        }
+        Arrays.sort(all);
+        return new Result(total / (double) seconds, percentile(all, 0.50), percentile(all, 0.99),
+                all.length == 0 ? 0 : all[all.length - 1], errors.get());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static void report(String stack, int connections, Result r) {
+        System.out.printf("%-9s %6d %10.0f %9.2f %9.2f %9.2f %7d%n", stack, connections, r.throughput(),
+                r.p50() / 1e6, r.p99() / 1e6, r.max() / 1e6, r.errors());
+    }
+
+    private record Result(double throughput, long p50, long p99, long max, long errors) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.user.api;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Builder
+public class UserChange {
+    private UUID id;
+    private UserChangeType type;
+    private Instant changedAt;
+    private UserResponse user;   // null for DELETED
+}
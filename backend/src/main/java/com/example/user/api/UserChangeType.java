@@ -0,0 +1,6 @@
+package com.example.user.api;
+
+public enum UserChangeType {
+    UPSERT,
+    DELETED
+}
@@ -0,0 +1,17 @@
+package com.example.user.api;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Builder
+public class UserChangesResponse {
+    private List<UserChange> items;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package com.example.user.api;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Filters of {@code GET /api/users}. Every field is optional; {@code null} means the filter is absent and adds
+ * nothing to the query.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+@Builder
+public class UserFilter {
+    /** Substring of first name, last name or email. */
+    private String q;
+    private Boolean active;
+    /** Inclusive lower bound of {@code createdAt}. */
+    private Instant createdFrom;
+    /** Exclusive upper bound of {@code createdAt}. */
+    private Instant createdTo;
+    /** Part of the email after {@code @}, case-insensitive. */
+    private String emailDomain;
+    /** Start of {@code "firstName lastName"}, case-insensitive. */
+    private String namePrefix;
+}
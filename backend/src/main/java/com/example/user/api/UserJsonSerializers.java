@@ -0,0 +1,196 @@
+package com.example.user.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.DecimalUtils;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Hand-written serializers for the objects every list and lookup response is made of. Field names are
+ * pre-encoded, UUIDs and Instants are formatted straight into a char buffer. The output is byte for byte
+ * what the bean serializer writes with Spring Boot's defaults (ISO-8601 instants, nulls included, fields
+ * in declaration order), so clients cannot tell the difference. Binary formats get what Jackson itself
+ * would write there: UUIDs as 16 raw bytes and, with {@code WRITE_DATES_AS_TIMESTAMPS}, epoch timestamps.
+ */
+@JsonComponent
+public class UserJsonSerializers {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static class UserResponseSerializer extends StdSerializer<UserResponse> {
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+        private static final SerializedString LAST_NAME = new SerializedString("lastName");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString ACTIVE = new SerializedString("active");
+        private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+        public UserResponseSerializer() {
+            super(UserResponse.class);
+        }
+
+        @Override
+        public void serialize(UserResponse user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            char[] buf = new char[36];
+            gen.writeStartObject(user);
+            gen.writeFieldName(ID);
+            writeUuid(gen, user.getId(), buf);
+            gen.writeFieldName(FIRST_NAME);
+            gen.writeString(user.getFirstName());
+            gen.writeFieldName(LAST_NAME);
+            gen.writeString(user.getLastName());
+            gen.writeFieldName(EMAIL);
+            gen.writeString(user.getEmail());
+            gen.writeFieldName(ACTIVE);
+            gen.writeBoolean(user.isActive());
+            gen.writeFieldName(CREATED_AT);
+            writeInstant(gen, provider, user.getCreatedAt(), buf);
+            gen.writeFieldName(UPDATED_AT);
+            writeInstant(gen, provider, user.getUpdatedAt(), buf);
+            gen.writeEndObject();
+        }
+    }
+
+    public static class PageMetaSerializer extends StdSerializer<PageMeta> {
+        private static final SerializedString PAGE = new SerializedString("page");
+        private static final SerializedString SIZE = new SerializedString("size");
+        private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+        private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+        private static final SerializedString HAS_NEXT = new SerializedString("hasNext");
+        private static final SerializedString HAS_PREVIOUS = new SerializedString("hasPrevious");
+
+        public PageMetaSerializer() {
+            super(PageMeta.class);
+        }
+
+        @Override
+        public void serialize(PageMeta meta, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(meta);
+            gen.writeFieldName(PAGE);
+            gen.writeNumber(meta.getPage());
+            gen.writeFieldName(SIZE);
+            gen.writeNumber(meta.getSize());
+            gen.writeFieldName(TOTAL_ELEMENTS);
+            gen.writeNumber(meta.getTotalElements());
+            gen.writeFieldName(TOTAL_PAGES);
+            gen.writeNumber(meta.getTotalPages());
+            gen.writeFieldName(HAS_NEXT);
+            gen.writeBoolean(meta.isHasNext());
+            gen.writeFieldName(HAS_PREVIOUS);
+            gen.writeBoolean(meta.isHasPrevious());
+            gen.writeEndObject();
+        }
+    }
+
+    static void writeUuid(JsonGenerator gen, UUID id, char[] buf) throws IOException {
+        if (id == null) {
+            gen.writeNull();
+            return;
+        }
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        if (gen.canWriteBinaryNatively()) {
+            byte[] bytes = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (msb >>> (56 - 8 * i));
+                bytes[8 + i] = (byte) (lsb >>> (56 - 8 * i));
+            }
+            gen.writeBinary(bytes);
+            return;
+        }
+        hex(buf, 0, msb >>> 32, 8);
+        buf[8] = '-';
+        hex(buf, 9, msb >>> 16, 4);
+        buf[13] = '-';
+        hex(buf, 14, msb, 4);
+        buf[18] = '-';
+        hex(buf, 19, lsb >>> 48, 4);
+        buf[23] = '-';
+        hex(buf, 24, lsb, 12);
+        gen.writeString(buf, 0, 36);
+    }
+
+    /** Same text as {@code DateTimeFormatter.ISO_INSTANT}; years past 9999 (or before 0) take the slow path. */
+    static void writeInstant(JsonGenerator gen, SerializerProvider provider, Instant instant, char[] buf) throws IOException {
+        if (instant == null) {
+            gen.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)) {
+                gen.writeNumber(DecimalUtils.toBigDecimal(instant.getEpochSecond(), instant.getNano()));
+            } else {
+                gen.writeNumber(instant.toEpochMilli());
+            }
+            return;
+        }
+        long seconds = instant.getEpochSecond();
+        long days = Math.floorDiv(seconds, 86_400);
+        int secondOfDay = (int) Math.floorMod(seconds, 86_400);
+
+        // civil date from days since 1970-01-01 (H. Hinnant's algorithm)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            gen.writeString(instant.toString());
+            return;
+        }
+
+        digits(buf, 0, (int) year, 4);
+        buf[4] = '-';
+        digits(buf, 5, month, 2);
+        buf[7] = '-';
+        digits(buf, 8, day, 2);
+        buf[10] = 'T';
+        digits(buf, 11, secondOfDay / 3600, 2);
+        buf[13] = ':';
+        digits(buf, 14, secondOfDay / 60 % 60, 2);
+        buf[16] = ':';
+        digits(buf, 17, secondOfDay % 60, 2);
+        int len = 19;
+        int nano = instant.getNano();
+        if (nano != 0) {
+            buf[len++] = '.';
+            if (nano % 1_000_000 == 0) {
+                digits(buf, len, nano / 1_000_000, 3);
+                len += 3;
+            } else if (nano % 1_000 == 0) {
+                digits(buf, len, nano / 1_000, 6);
+                len += 6;
+            } else {
+                digits(buf, len, nano, 9);
+                len += 9;
+            }
+        }
+        buf[len++] = 'Z';
+        gen.writeString(buf, 0, len);
+    }
+
+    private static void hex(char[] buf, int offset, long value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buf[i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    private static void digits(char[] buf, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.user.audit;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Prints an audit log as tab-separated {@code sequence time action userId} lines. Needs nothing but the JDK, e.g.
+ * {@code java -cp target/classes com.example.user.audit.AuditLogCli ./data/audit --user <id>}.
+ * <pre>
+ * AuditLogCli &lt;dir&gt; [--from &lt;sequence&gt;] [--limit &lt;n&gt;] [--user &lt;uuid&gt;]
+ * </pre>
+ */
+public class AuditLogCli {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("usage: AuditLogCli <dir> [--from <sequence>] [--limit <n>] [--user <uuid>]");
+            System.exit(2);
+        }
+        Path dir = Path.of(args[0]);
+        long from = 1;
+        long limit = Long.MAX_VALUE;
+        UUID user = null;
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            switch (args[i]) {
+                case "--from" -> from = Long.parseLong(args[i + 1]);
+                case "--limit" -> limit = Long.parseLong(args[i + 1]);
+                case "--user" -> user = UUID.fromString(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        UUID onlyUser = user;
+        long max = limit;
+        long[] printed = {0};
+        new AuditLogReader(dir).scan(from, r -> {
+            if (onlyUser == null || onlyUser.equals(r.userId())) {
+                System.out.println(r.sequence() + "\t" + r.time() + "\t" + r.action() + "\t" + r.userId());
+                printed[0]++;
+            }
+            return printed[0] < max;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.user.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * Reads an audit log directory written by {@link AuditLogWriter}, also while the application is appending to it.
+ * Segments are mapped read-only; each one is read up to its first empty or torn slot. Segments before the one
+ * holding {@code fromSequence} are skipped by name, and within a segment the reader jumps straight to the slot.
+ */
+public final class AuditLogReader {
+    private final Path dir;
+
+    public AuditLogReader(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Passes the records from {@code fromSequence} on, in order, to {@code visitor} until it returns false. */
+    public void scan(long fromSequence, Predicate<AuditRecord> visitor) throws IOException {
+        List<Path> segments = AuditSegments.list(dir);
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && AuditSegments.firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            long first = AuditSegments.firstSequence(segments.get(i));
+            MappedByteBuffer segment = AuditSegments.mapForRead(segments.get(i));
+            int slots = segment.capacity() / AuditRecord.SIZE;
+            for (long slot = Math.max(0, fromSequence - first); slot < slots; slot++) {
+                AuditRecord r = AuditRecord.read(segment, (int) slot * AuditRecord.SIZE, crc);
+                if (r == null || r.sequence() != first + slot) {
+                    break;
+                }
+                if (!visitor.test(r)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Up to {@code max} records from {@code fromSequence} on. */
+    public List<AuditRecord> read(long fromSequence, int max) throws IOException {
+        List<AuditRecord> records = new ArrayList<>(Math.min(max, 1024));
+        if (max > 0) {
+            scan(fromSequence, r -> {
+                records.add(r);
+                return records.size() < max;
+            });
+        }
+        return records;
+    }
+
+    /** Every record of one user, oldest first. Reads the whole log. */
+    public List<AuditRecord> history(UUID userId) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        scan(1, r -> {
+            if (r.userId().equals(userId)) {
+                records.add(r);
+            }
+            return true;
+        });
+        return records;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.user.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Appends {@link AuditRecord}s to memory-mapped segments of {@code segmentRecords} fixed-size slots. A record is a
+ * handful of stores into the page cache; {@link #force()} makes what was appended durable. When a segment is full
+ * the next one starts at the following sequence number. Opening a directory that already has segments continues
+ * after the last valid record of the newest one, so a torn record left by a crash is overwritten. Not thread-safe:
+ * one thread appends.
+ */
+public final class AuditLogWriter implements Closeable {
+    private final Path dir;
+    private final int segmentRecords;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer segment;
+    private int capacity;
+    private int slot;
+    private long nextSequence;
+
+    public AuditLogWriter(Path dir, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0 || (long) segmentRecords * AuditRecord.SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentRecords out of range: " + segmentRecords);
+        }
+        this.dir = dir;
+        this.segmentRecords = segmentRecords;
+        Files.createDirectories(dir);
+        List<Path> segments = AuditSegments.list(dir);
+        if (segments.isEmpty()) {
+            open(1);
+        } else {
+            resume(segments.get(segments.size() - 1));
+        }
+    }
+
+    /** Appends one record and returns its sequence number. */
+    public long append(long epochMicros, UUID userId, AuditRecord.Action action) throws IOException {
+        // checked before a slot is taken, so a bad record never leaves a torn one behind
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(action, "action");
+        if (slot == capacity) {
+            roll();
+        }
+        long sequence = nextSequence++;
+        AuditRecord.write(segment, slot++ * AuditRecord.SIZE, crc, sequence, epochMicros, userId, action);
+        return sequence;
+    }
+
+    /** Sequence number the next record will get. */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /** Writes the dirty pages of the current segment to the file. */
+    public void force() {
+        segment.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private void roll() throws IOException {
+        segment.force();
+        open(nextSequence);
+    }
+
+    private void open(long firstSequence) throws IOException {
+        segment = AuditSegments.mapForWrite(AuditSegments.path(dir, firstSequence), segmentRecords);
+        capacity = segmentRecords;
+        slot = 0;
+        nextSequence = firstSequence;
+    }
+
+    private void resume(Path last) throws IOException {
+        long first = AuditSegments.firstSequence(last);
+        // a segment keeps the size it was created with, even if segmentRecords changed since
+        long existing = Files.size(last) / AuditRecord.SIZE;
+        int records = (int) Math.max(existing, 1);
+        segment = AuditSegments.mapForWrite(last, records);
+        capacity = records;
+        slot = 0;
+        while (slot < capacity) {
+            AuditRecord r = AuditRecord.read(segment, slot * AuditRecord.SIZE, crc);
+            if (r == null || r.sequence() != first + slot) {
+                break;
+            }
+            slot++;
+        }
+        nextSequence = first + slot;
+    }
+}
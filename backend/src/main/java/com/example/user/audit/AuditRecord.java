@@ -0,0 +1,84 @@
+package com.example.user.audit;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * One entry of the audit log, stored as {@value #SIZE} bytes:
+ * <pre>
+ *  0  long   sequence, from 1; 0 marks a slot never written
+ *  8  long   time, microseconds since the epoch
+ * 16  long   user id, most significant bits
+ * 24  long   user id, least significant bits
+ * 32  byte   action code
+ * 33  byte[3] zero
+ * 36  int    CRC-32 of bytes 0..35, written last
+ * </pre>
+ * A slot whose checksum does not match was torn by a crash and ends the log.
+ */
+public record AuditRecord(long sequence, Instant time, UUID userId, Action action) {
+    public static final int SIZE = 40;
+    private static final int CHECKED = 36;
+
+    public enum Action {
+        CREATED(1),
+        SOFT_DELETED(2),
+        HARD_DELETED(3),
+        ARCHIVED(4);
+
+        private final byte code;
+
+        Action(int code) {
+            this.code = (byte) code;
+        }
+
+        static Action of(byte code) {
+            for (Action a : values()) {
+                if (a.code == code) {
+                    return a;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Writes the record at {@code offset}; the checksum goes in after everything it covers. */
+    static void write(ByteBuffer buf, int offset, CRC32 crc, long sequence, long epochMicros, UUID userId, Action action) {
+        buf.putLong(offset, sequence);
+        buf.putLong(offset + 8, epochMicros);
+        buf.putLong(offset + 16, userId.getMostSignificantBits());
+        buf.putLong(offset + 24, userId.getLeastSignificantBits());
+        buf.put(offset + 32, action.code);
+        buf.put(offset + 33, (byte) 0);
+        buf.putShort(offset + 34, (short) 0);
+        buf.putInt(offset + CHECKED, checksum(buf, offset, crc));
+    }
+
+    /** The record at {@code offset}, or {@code null} for an empty or torn slot. */
+    static AuditRecord read(ByteBuffer buf, int offset, CRC32 crc) {
+        long sequence = buf.getLong(offset);
+        if (sequence == 0 || buf.getInt(offset + CHECKED) != checksum(buf, offset, crc)) {
+            return null;
+        }
+        Action action = Action.of(buf.get(offset + 32));
+        if (action == null) {
+            return null;
+        }
+        long micros = buf.getLong(offset + 8);
+        Instant time = Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+        return new AuditRecord(sequence, time, new UUID(buf.getLong(offset + 16), buf.getLong(offset + 24)), action);
+    }
+
+    static long epochMicros(Instant time) {
+        return Math.addExact(Math.multiplyExact(time.getEpochSecond(), 1_000_000L), time.getNano() / 1_000);
+    }
+
+    private static int checksum(ByteBuffer buf, int offset, CRC32 crc) {
+        crc.reset();
+        crc.update(buf.slice(offset, CHECKED));
+        return (int) crc.getValue();
+    }
+}
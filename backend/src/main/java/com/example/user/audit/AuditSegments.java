@@ -0,0 +1,59 @@
+package com.example.user.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/** Segment files of an audit log directory: {@code audit-<first sequence, 20 digits>.log}. */
+final class AuditSegments {
+    private static final Pattern NAME = Pattern.compile("audit-(\\d{20})\\.log");
+
+    private AuditSegments() {
+    }
+
+    /** Segments in sequence order. */
+    static List<Path> list(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            // fixed-width numbers, so name order is sequence order
+            return files.filter(f -> NAME.matcher(f.getFileName().toString()).matches()).sorted().toList();
+        }
+    }
+
+    static long firstSequence(Path segment) {
+        Matcher m = NAME.matcher(segment.getFileName().toString());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Not an audit segment: " + segment);
+        }
+        return Long.parseLong(m.group(1));
+    }
+
+    static Path path(Path dir, long firstSequence) {
+        return dir.resolve(String.format("audit-%020d.log", firstSequence));
+    }
+
+    /** Maps {@code records} slots of {@code segment}, creating and zero-extending the file as needed. */
+    static MappedByteBuffer mapForWrite(Path segment, int records) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * AuditRecord.SIZE);
+        }
+    }
+
+    static MappedByteBuffer mapForRead(Path segment) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long whole = ch.size() - ch.size() % AuditRecord.SIZE;
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, whole);
+        }
+    }
+}
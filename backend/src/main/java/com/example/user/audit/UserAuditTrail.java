@@ -0,0 +1,166 @@
+package com.example.user.audit;
+
+import com.example.user.service.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of user creates and deletes ({@code users.audit.enabled}) in an {@link AuditLogWriter} log under
+ * {@code dir}, outside the database so it costs no extra write transaction. After a commit the listener only
+ * stamps the time and offers the entry to a lock-free queue; a single writer thread appends it to the mapped
+ * segment and forces the file every {@code flush-interval}. A crash can lose at most that interval.
+ * {@code users.audit.appended}, {@code users.audit.backlog} and {@code users.audit.force} report on it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.audit.enabled", havingValue = "true")
+public class UserAuditTrail {
+    // how long the writer sleeps once the queue is drained; it never wakes the request threads' cores more often
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${users.audit.dir:./data/audit}")
+    private Path dir = Path.of(".", "data", "audit");
+    @Value("${users.audit.segment-records:1048576}")
+    private int segmentRecords = 1 << 20;
+    @Value("${users.audit.flush-interval:1s}")
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final LongAdder offered = new LongAdder();
+    private final AtomicLong appended = new AtomicLong();
+    // appended or failed: what the writer is done with
+    private final AtomicLong processed = new AtomicLong();
+    private AuditLogWriter auditLog;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter failures;
+    private Timer forces;
+
+    @PostConstruct
+    void start() throws IOException {
+        auditLog = new AuditLogWriter(dir, segmentRecords);
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        FunctionCounter.builder("users.audit.appended", appended, AtomicLong::get)
+                .description("Audit records appended to the log")
+                .register(registry);
+        Gauge.builder("users.audit.backlog", this, UserAuditTrail::backlog)
+                .description("Audit records waiting for the writer")
+                .register(registry);
+        failures = Counter.builder("users.audit.failures")
+                .description("Audit records that could not be appended")
+                .register(registry);
+        forces = Timer.builder("users.audit.force")
+                .description("Forcing the mapped audit segment to disk")
+                .register(registry);
+        running = true;
+        writer = new Thread(this::writeLoop, "user-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit log in {}, next sequence {}", dir.toAbsolutePath(), auditLog.nextSequence());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(5).toMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        queue.offer(new Entry(AuditRecord.epochMicros(Instant.now()), event.id(), action(event.kind())));
+        offered.increment();
+    }
+
+    /** Entries handed over that the writer has not got to yet. */
+    public long backlog() {
+        return offered.sum() - processed.get();
+    }
+
+    /** Sequence number the next appended record will get. */
+    public long nextSequence() {
+        return auditLog.nextSequence();
+    }
+
+    private void writeLoop() {
+        long nextForce = System.nanoTime() + flushInterval.toNanos();
+        boolean dirty = false;
+        while (true) {
+            Entry e = queue.poll();
+            if (e != null) {
+                append(e);
+                dirty = true;
+            } else if (!running) {
+                break;
+            }
+            if (dirty && System.nanoTime() >= nextForce) {
+                force();
+                dirty = false;
+                nextForce = System.nanoTime() + flushInterval.toNanos();
+            }
+            if (e == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        force();
+    }
+
+    private void append(Entry e) {
+        try {
+            auditLog.append(e.epochMicros(), e.userId(), e.action());
+            appended.incrementAndGet();
+        } catch (IOException | RuntimeException ex) {
+            failures.increment();
+            log.error("Audit record lost: {} {} at {}us: {}", e.action(), e.userId(), e.epochMicros(), ex.toString());
+        } finally {
+            processed.incrementAndGet();
+        }
+    }
+
+    private void force() {
+        try {
+            forces.record(auditLog::force);
+        } catch (UncheckedIOException e) {
+            log.warn("Audit log force failed: {}", e.toString());
+        }
+    }
+
+    private static AuditRecord.Action action(UserChangedEvent.Kind kind) {
+        return switch (kind) {
+            case CREATED -> AuditRecord.Action.CREATED;
+            case DEACTIVATED -> AuditRecord.Action.SOFT_DELETED;
+            case DELETED -> AuditRecord.Action.HARD_DELETED;
+            case ARCHIVED -> AuditRecord.Action.ARCHIVED;
+        };
+    }
+
+    private record Entry(long epochMicros, UUID userId, AuditRecord.Action action) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.user.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,7 +10,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class CryptoConfig {
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+        PasswordEncoder encoder = new BCryptPasswordEncoder();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return registry != null ? new TimedPasswordEncoder(encoder, registry) : encoder;
     }
 }
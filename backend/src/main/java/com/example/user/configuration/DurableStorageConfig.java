@@ -0,0 +1,40 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/** Snapshot restore and checkpoint schedule for the file-backed H2 of the {@code durable} profile. */
+@Configuration
+@ConditionalOnProperty(name = "users.storage.maintenance", havingValue = "true")
+@EnableConfigurationProperties(StorageProperties.class)
+public class DurableStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public H2StorageMaintenance h2StorageMaintenance(JdbcTemplate jdbc, StorageProperties properties,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new H2StorageMaintenance(jdbc, properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public static BeanPostProcessor snapshotRestore(ObjectProvider<StorageProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // the pool connects lazily, so the file is in place before anything opens the database
+                if (bean instanceof DataSource && "dataSource".equals(beanName)) {
+                    H2StorageMaintenance.restoreIfMissing(properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
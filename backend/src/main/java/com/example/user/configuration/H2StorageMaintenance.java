@@ -0,0 +1,121 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Maintenance schedule of the file-backed H2. {@code CHECKPOINT SYNC} every {@code checkpoint-interval} bounds
+ * what a crash can cost to that interval, independent of the write delay. Every {@code snapshot-interval} an
+ * online {@code BACKUP} is written next to the database. A node that starts without a database file restores
+ * the newest snapshot before the pool opens its first connection, so it starts with the data and does not begin
+ * empty. The MVStore compacts itself: in the background below {@code AUTO_COMPACT_FILL_RATE}, and fully for up
+ * to {@code MAX_COMPACT_TIME} when the last connection closes on shutdown.
+ */
+@Slf4j
+public class H2StorageMaintenance implements AutoCloseable {
+    private final JdbcTemplate jdbc;
+    private final StorageProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final Timer checkpoints;
+    private final Timer snapshots;
+
+    public H2StorageMaintenance(JdbcTemplate jdbc, StorageProperties properties, MeterRegistry meterRegistry) {
+        this.jdbc = jdbc;
+        this.properties = properties;
+        this.checkpoints = Timer.builder("users.storage.checkpoint").register(meterRegistry);
+        this.snapshots = Timer.builder("users.storage.snapshot").register(meterRegistry);
+        Gauge.builder("users.storage.file.size", properties, p -> fileSize(p.databaseFile()))
+                .description("Size of the H2 database file")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "h2-storage-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        long checkpointMs = properties.getCheckpointInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkpoint, checkpointMs, checkpointMs, TimeUnit.MILLISECONDS);
+        long snapshotMs = properties.getSnapshotInterval().toMillis();
+        if (snapshotMs > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshot, snapshotMs, snapshotMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Restores {@code snapshot-file} when the database file does not exist yet; returns whether it did. */
+    public static boolean restoreIfMissing(StorageProperties properties) {
+        Path snapshot = properties.getSnapshotFile();
+        if (Files.exists(properties.databaseFile()) || !Files.exists(snapshot)) {
+            return false;
+        }
+        // BACKUP zips the database files under their own names; extracting them is all org.h2.tools.Restore does
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            Files.createDirectories(properties.getDir());
+            for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+                Path file = properties.getDir().resolve(Path.of(entry.getName()).getFileName().toString());
+                if (!entry.isDirectory() && file.getFileName().toString().startsWith(properties.getName() + ".")) {
+                    copy(zip, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot restore " + snapshot + " into " + properties.getDir(), e);
+        }
+        log.info("Restored {} from snapshot {}", properties.databaseFile(), snapshot);
+        return true;
+    }
+
+    public void checkpoint() {
+        try {
+            checkpoints.record(() -> jdbc.execute("CHECKPOINT SYNC"));
+        } catch (RuntimeException e) {
+            log.warn("H2 checkpoint failed: {}", e.toString());
+        }
+    }
+
+    public void snapshot() {
+        Path target = properties.getSnapshotFile();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.deleteIfExists(tmp);
+            snapshots.record(() -> jdbc.execute("BACKUP TO '" + tmp.toString().replace("'", "''") + "'"));
+            // readers of the snapshot never see a half-written zip
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("H2 snapshot written to {} ({} bytes)", target, Files.size(target));
+        } catch (IOException | RuntimeException e) {
+            log.warn("H2 snapshot failed: {}", e.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static void copy(InputStream in, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".restoring");
+        Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static double fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+    }
+}
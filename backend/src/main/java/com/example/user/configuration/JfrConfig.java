@@ -0,0 +1,17 @@
+package com.example.user.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class JfrConfig {
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(@Value("${users.jfr.max-duration:5m}") Duration maxDuration,
+                                                     @Value("${users.jfr.max-size:100MB}") DataSize maxSize) {
+        return new JfrRecordingEndpoint(maxDuration, maxSize);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.user.configuration;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code /actuator/jfr}: one in-process flight recording at a time. POST starts it (bounded by
+ * {@code users.jfr.max-duration} and {@code users.jfr.max-size}), GET shows its state, DELETE stops it and
+ * answers with the {@code .jfr} file. The {@code com.example.user.*} events are always part of it. A recording holds
+ * the environment and system properties, so the endpoint is not exposed by default and its POST and DELETE need the
+ * actuator user; {@code settings} is one of the JDK's own {@code default} or {@code profile}, never a file.
+ */
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration maxDuration;
+    private final DataSize maxSize;
+    private Recording recording;
+
+    public JfrRecordingEndpoint(Duration maxDuration, DataSize maxSize) {
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("startedAt", recording.getStartTime());
+            status.put("duration", recording.getDuration().toString());
+            status.put("maxSize", recording.getMaxSize());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Duration duration,
+                                                                      @Nullable String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        String name = settings == null ? "profile" : settings;
+        if (!SETTINGS.contains(name)) {
+            return new WebEndpointResponse<>(Map.of("error", "JFR settings must be one of " + SETTINGS.stream().sorted().toList()),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings: " + settings),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Duration bounded = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        recording = new Recording(configuration);
+        recording.setName("user-mgnt");
+        recording.setToDisk(true);
+        recording.setDuration(bounded);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.enable("com.example.user.Create");
+        recording.enable("com.example.user.PasswordHash");
+        recording.enable("com.example.user.Search");
+        recording.enable("com.example.user.Stats");
+        recording.enable("com.example.user.Delete");
+        recording.start();
+        return new WebEndpointResponse<>(status());
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stop() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("user-mgnt-", ".jfr");
+            recording.dump(file);
+            return new WebEndpointResponse<>(new TemporaryFileSystemResource(file));
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /** The dump only lives until it has been streamed to the caller. */
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+        private TemporaryFileSystemResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
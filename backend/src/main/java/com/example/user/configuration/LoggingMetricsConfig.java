@@ -0,0 +1,41 @@
+package com.example.user.configuration;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.example.user.logging.RingBufferAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Dropped and written event counts of the {@link RingBufferAppender}s on the root logger (json-logs profile). */
+@Configuration
+@ConditionalOnClass(LoggerContext.class)
+public class LoggingMetricsConfig {
+
+    @Bean
+    public MeterBinder ringBufferAppenderMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders().forEachRemaining(appender -> {
+                if (appender instanceof RingBufferAppender ring) {
+                    FunctionCounter.builder("users.logging.dropped", ring, RingBufferAppender::getDroppedDebug)
+                            .description("Log events dropped because the buffer was full")
+                            .tags("appender", ring.getName(), "level", "debug")
+                            .register(registry);
+                    FunctionCounter.builder("users.logging.dropped", ring, RingBufferAppender::getDroppedInfo)
+                            .description("Log events dropped because the buffer was full")
+                            .tags("appender", ring.getName(), "level", "info")
+                            .register(registry);
+                    FunctionCounter.builder("users.logging.appended", ring, RingBufferAppender::getAppended)
+                            .tags("appender", ring.getName())
+                            .register(registry);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.user.configuration;
+
+import com.example.user.domain.PasswordRules;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** {@link PasswordRules} compiled once from {@code users.password.rules}; a bad setting fails the startup. */
+@Configuration
+@EnableConfigurationProperties(PasswordRulesProperties.class)
+public class PasswordRulesConfig {
+
+    @Bean
+    public PasswordRules passwordRules(PasswordRulesProperties properties) {
+        return properties.toRules();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.user.configuration;
+
+import com.example.user.domain.PasswordRules;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Password rules applied on create. A domain entry overrides the base rule for addresses in that domain; settings it
+ * leaves out are taken from the base rule.
+ */
+@Data
+@ConfigurationProperties(prefix = "users.password.rules")
+public class PasswordRulesProperties {
+    private int minLength = 8;
+    private int minClasses = 3;
+    private Set<PasswordRules.CharClass> required = EnumSet.noneOf(PasswordRules.CharClass.class);
+    private List<Domain> domains = new ArrayList<>(List.of(Domain.of("example.com", 12)));
+
+    @Data
+    public static class Domain {
+        private String domain;
+        private Integer minLength;
+        private Integer minClasses;
+        private Set<PasswordRules.CharClass> required;
+
+        static Domain of(String domain, int minLength) {
+            Domain d = new Domain();
+            d.setDomain(domain);
+            d.setMinLength(minLength);
+            return d;
+        }
+    }
+
+    public PasswordRules toRules() {
+        PasswordRules.Rule base = new PasswordRules.Rule(minLength, minClasses, required);
+        List<PasswordRules.DomainRule> overrides = new ArrayList<>(domains.size());
+        for (Domain d : domains) {
+            overrides.add(new PasswordRules.DomainRule(d.getDomain(), new PasswordRules.Rule(
+                    d.getMinLength() != null ? d.getMinLength() : minLength,
+                    d.getMinClasses() != null ? d.getMinClasses() : minClasses,
+                    d.getRequired() != null ? d.getRequired() : required)));
+        }
+        return new PasswordRules(base, overrides);
+    }
+}
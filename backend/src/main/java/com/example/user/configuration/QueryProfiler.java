@@ -0,0 +1,159 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Times JDBC statements instead of printing all of them. Statements over {@code slow-threshold} are logged
+ * at WARN, a {@code sample-rate} share of the rest at INFO, always without bind values. Inside a request
+ * scope the statements are counted and a request going over {@code statement-budget} is reported as a
+ * likely N+1. While disabled, connections are handed out unwrapped.
+ */
+@Slf4j
+public class QueryProfiler {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final QueryProfilingProperties properties;
+    private final Counter slowQueries;
+    private final Counter budgetExceeded;
+    private final DistributionSummary statementsPerRequest;
+
+    public QueryProfiler(QueryProfilingProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.slowQueries = Counter.builder("users.query.slow")
+                .description("Statements slower than the slow-query threshold")
+                .register(registry);
+        this.budgetExceeded = Counter.builder("users.query.budget.exceeded")
+                .description("Requests that ran more statements than the budget")
+                .register(registry);
+        this.statementsPerRequest = DistributionSummary.builder("users.query.statements")
+                .description("Statements run per HTTP request")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public DataSource wrap(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection con = super.getConnection();
+                return isEnabled() ? profiled(con) : con;
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                Connection con = super.getConnection(username, password);
+                return isEnabled() ? profiled(con) : con;
+            }
+        };
+    }
+
+    public void beginRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    /** Closes the request scope and returns how many statements ran in it. */
+    public int endRequest(String request) {
+        int[] count = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        if (count == null) {
+            return 0;
+        }
+        statementsPerRequest.record(count[0]);
+        int budget = properties.getStatementBudget();
+        if (count[0] > budget) {
+            budgetExceeded.increment();
+            log.warn("{} ran {} statements (budget {}), possible N+1", request, count[0], budget);
+        }
+        return count[0];
+    }
+
+    static String redact(String sql) {
+        String redacted = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(redacted).replaceAll("?");
+    }
+
+    void record(String sql, long elapsedNanos) {
+        int[] count = REQUEST_STATEMENTS.get();
+        if (count != null) {
+            count[0]++;
+        }
+        long threshold = properties.getSlowThreshold().toNanos();
+        if (elapsedNanos >= threshold) {
+            slowQueries.increment();
+            log.warn("Slow query ({} ms): {}", elapsedNanos / 1_000_000, redact(sql));
+        } else if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            log.info("Sampled query ({} us): {}", elapsedNanos / 1_000, redact(sql));
+        }
+    }
+
+    private Connection profiled(Connection con) {
+        return (Connection) Proxy.newProxyInstance(QueryProfiler.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(con, method, args);
+                    String name = method.getName();
+                    if (result instanceof Statement st
+                            && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+                        return profiled(st, args != null && args.length > 0 && args[0] instanceof String s ? s : null);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement profiled(Statement st, String preparedSql) {
+        Class<?> type = st instanceof CallableStatement ? CallableStatement.class
+                : st instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        InvocationHandler handler = new InvocationHandler() {
+            private String lastBatchSql;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("addBatch") && args != null && args.length > 0) {
+                    lastBatchSql = (String) args[0];
+                }
+                if (!name.startsWith("execute")) {
+                    return QueryProfiler.invoke(st, method, args);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                        : preparedSql != null ? preparedSql : lastBatchSql;
+                long start = System.nanoTime();
+                try {
+                    return QueryProfiler.invoke(st, method, args);
+                } finally {
+                    record(sql != null ? sql : "<unknown>", System.nanoTime() - start);
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(QueryProfiler.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/** Puts the {@link QueryProfiler} in front of the application data source and around every HTTP request. */
+@Configuration
+@EnableConfigurationProperties(QueryProfilingProperties.class)
+public class QueryProfilingConfig {
+
+    @Bean
+    public QueryProfiler queryProfiler(QueryProfilingProperties properties, MeterRegistry meterRegistry) {
+        return new QueryProfiler(properties, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor queryProfilingDataSourceWrapper(ObjectProvider<QueryProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // only the application data source, not the pools behind the routing proxy
+                return bean instanceof DataSource ds && "dataSource".equals(beanName)
+                        ? profiler.getObject().wrap(ds) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryProfilingEndpoint queryProfilingEndpoint(QueryProfilingProperties properties) {
+        return new QueryProfilingEndpoint(properties);
+    }
+
+    @Bean
+    public OncePerRequestFilter queryBudgetFilter(QueryProfiler profiler) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                if (!profiler.isEnabled()) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                profiler.beginRequest();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    profiler.endRequest(request.getMethod() + " " + request.getRequestURI());
+                }
+            }
+        };
+    }
+}
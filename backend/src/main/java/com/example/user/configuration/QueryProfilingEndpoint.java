@@ -0,0 +1,48 @@
+package com.example.user.configuration;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** {@code GET/POST /actuator/queryprofiling}: shows or changes the query profiler settings without a restart. */
+@Endpoint(id = "queryprofiling")
+public class QueryProfilingEndpoint {
+    private final QueryProfilingProperties properties;
+
+    public QueryProfilingEndpoint(QueryProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", properties.isEnabled());
+        settings.put("slowThreshold", properties.getSlowThreshold().toString());
+        settings.put("sampleRate", properties.getSampleRate());
+        settings.put("statementBudget", properties.getStatementBudget());
+        return settings;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Boolean enabled, @Nullable Duration slowThreshold,
+                                      @Nullable Double sampleRate, @Nullable Integer statementBudget) {
+        if (enabled != null) {
+            properties.setEnabled(enabled);
+        }
+        if (slowThreshold != null) {
+            properties.setSlowThreshold(slowThreshold);
+        }
+        if (sampleRate != null) {
+            properties.setSampleRate(sampleRate);
+        }
+        if (statementBudget != null) {
+            properties.setStatementBudget(statementBudget);
+        }
+        return settings();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.user.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/** Settings of the JDBC query profiler; the actuator endpoint {@code queryprofiling} changes them at runtime. */
+@Data
+@ConfigurationProperties(prefix = "users.query-profiling")
+public class QueryProfilingProperties {
+    private volatile boolean enabled;
+    private volatile Duration slowThreshold = Duration.ofMillis(100);
+    private volatile double sampleRate = 0.01;
+    private volatile int statementBudget = 20;
+}
@@ -0,0 +1,32 @@
+package com.example.user.configuration;
+
+/**
+ * Per-request memory of "this request already wrote", so later reads in the same request do not
+ * hit a replica that may still lag behind. Outside a request scope nothing is remembered.
+ */
+public final class ReadYourWritesContext {
+    private static final ThreadLocal<boolean[]> PINNED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void begin() {
+        PINNED.set(new boolean[1]);
+    }
+
+    public static void end() {
+        PINNED.remove();
+    }
+
+    public static void pinToPrimary() {
+        boolean[] pinned = PINNED.get();
+        if (pinned != null) {
+            pinned[0] = true;
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        boolean[] pinned = PINNED.get();
+        return pinned != null && pinned[0];
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.user.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replicas (round robin) and everything else to the primary.
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * read-only flag is already known when the connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final List<HikariDataSource> replicas;
+    private final Map<String, AtomicLong> routed = new LinkedHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, new AtomicLong());
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            keys.add(key);
+            targets.put(key, replicas.get(i));
+            routed.put(key, new AtomicLong());
+        }
+        this.replicaKeys = List.copyOf(keys);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = route();
+        routed.get(key).incrementAndGet();
+        return key;
+    }
+
+    private String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWritesContext.pinToPrimary();
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || ReadYourWritesContext.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /** Connections handed out per route since startup. */
+    public Map<String, Long> getRoutedCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        routed.forEach((k, v) -> counts.put(k, v.get()));
+        return counts;
+    }
+
+    public long getRoutedCount(String route) {
+        AtomicLong count = routed.get(route);
+        return count == null ? 0 : count.get();
+    }
+
+    public Map<String, DataSource> getRoutes() {
+        Map<String, DataSource> routes = new LinkedHashMap<>();
+        getResolvedDataSources().forEach((k, v) -> routes.put((String) k, v));
+        return routes;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -1,20 +1,49 @@
 package com.example.user.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+/**
+ * The API is open. Actuator write operations (POST, PUT, DELETE under {@code /actuator}) need HTTP Basic as
+ * {@code users.actuator.username} / {@code password}; without a password no one can call them.
+ */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final String ACTUATOR = "/actuator/**";
 
     @Bean
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.POST, ACTUATOR).hasRole("ACTUATOR")
+                        .requestMatchers(HttpMethod.PUT, ACTUATOR).hasRole("ACTUATOR")
+                        .requestMatchers(HttpMethod.PATCH, ACTUATOR).hasRole("ACTUATOR")
+                        .requestMatchers(HttpMethod.DELETE, ACTUATOR).hasRole("ACTUATOR")
+                        .anyRequest().permitAll())
+                .httpBasic(Customizer.withDefaults())
                 .build();
     }
+
+    @Bean
+    UserDetailsService actuatorUsers(@Value("${users.actuator.username:actuator}") String username,
+                                     @Value("${users.actuator.password:}") String password,
+                                     PasswordEncoder encoder) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+        if (!password.isBlank()) {
+            users.createUser(User.withUsername(username).password(encoder.encode(password)).roles("ACTUATOR").build());
+        }
+        return users;
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.user.configuration;
+
+import com.example.user.repository.ShardedUserStore;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "destroy")
+    public ShardedUserStore shardedUserStore(ShardingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("users.sharding.enabled needs at least one users.sharding.shards entry");
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard s = properties.getShards().get(i);
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("users-shard-" + i);
+            ds.setJdbcUrl(s.getUrl());
+            ds.setUsername(s.getUsername());
+            ds.setPassword(s.getPassword());
+            ds.setMaximumPoolSize(s.getMaximumPoolSize());
+            if (registry != null) {
+                ds.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            shards.add(ds);
+        }
+        ShardedUserStore store = new ShardedUserStore(shards, properties.getParallelism());
+        store.initSchema();
+        return store;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.user.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "users.sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.user.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * File-backed H2 of the {@code durable} profile. The MVStore tuning (cache size, page split size, write delay,
+ * compaction) lives in the JDBC URL of application-durable.yml; these are the parts the application acts on.
+ */
+@Data
+@ConfigurationProperties(prefix = "users.storage")
+public class StorageProperties {
+    private boolean maintenance;
+    private Path dir = Path.of(".", "data");
+    private String name = "usersdb";
+    private Duration checkpointInterval = Duration.ofMinutes(1);
+    private Duration snapshotInterval = Duration.ZERO;
+    private Path snapshotFile = Path.of(".", "data", "snapshot", "usersdb.zip");
+
+    public Path databaseFile() {
+        return dir.resolve(name + ".mv.db");
+    }
+}
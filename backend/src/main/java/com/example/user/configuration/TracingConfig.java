@@ -0,0 +1,73 @@
+package com.example.user.configuration;
+
+import com.example.user.tracing.SpanExporter;
+import com.example.user.tracing.Tracer;
+import com.example.user.tracing.TracingAspect;
+import com.example.user.tracing.TracingFilter;
+import com.example.user.tracing.TracingJackson2HttpMessageConverter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "users.tracing.enabled", havingValue = "true")
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    public SpanExporter spanExporter(TracingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        SpanExporter exporter = new SpanExporter(properties.getFile(), properties.getBufferSize(),
+                properties.getFlushInterval(), "user-mgnt");
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("users.tracing.spans.dropped", exporter, SpanExporter::getDropped)
+                    .description("Spans dropped because the export buffer was full")
+                    .register(registry);
+            FunctionCounter.builder("users.tracing.spans.exported", exporter, SpanExporter::getExported)
+                    .register(registry);
+        });
+        return exporter;
+    }
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter, TracingProperties properties) {
+        return new Tracer(spanExporter, properties.getSampleRate());
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer tracingMessageConverters(Tracer tracer) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                for (int i = 0; i < converters.size(); i++) {
+                    if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                        MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                        converters.set(i, new TracingJackson2HttpMessageConverter(jackson.getObjectMapper(), tracer));
+                    }
+                }
+            }
+        };
+    }
+}
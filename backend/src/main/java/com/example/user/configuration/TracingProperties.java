@@ -0,0 +1,17 @@
+package com.example.user.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "users.tracing")
+public class TracingProperties {
+    private boolean enabled;
+    private double sampleRate = 0.1;
+    private Path file = Path.of("logs", "spans.otlp.jsonl");
+    private int bufferSize = 8192;
+    private Duration flushInterval = Duration.ofMillis(500);
+}
@@ -11,6 +11,7 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.NoSuchElementException;
 
@@ -49,10 +50,18 @@ public class ExceptionController {
     public ResponseEntity<ApiResponseDto<Void>> handleRequiredParams(RequiredParamsException ex) {
         return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "BAD_REQUEST", ex.getMessage());
     }
+    @ExceptionHandler(InvalidChangeTokenException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleInvalidChangeToken(InvalidChangeTokenException ex) {
+        return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "BAD_REQUEST", ex.getMessage());
+    }
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponseDto<Void>> handleValidation(MethodArgumentNotValidException ex) {
         return ResponseBuilder.error(400, "VALIDATION_ERROR", "Validation failed");
     }
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "BAD_REQUEST", "Invalid value for parameter " + ex.getName());
+    }
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiResponseDto<Void>> handleGeneric(HttpMessageNotReadableException ex) {
         return ResponseBuilder.error(HttpStatus.BAD_REQUEST.value(), "MALFORMED_JSON", "Request body is not readable JSON");
@@ -61,6 +70,11 @@ public class ExceptionController {
     public ResponseEntity<ApiResponseDto<Void>> handleServiceUnavailable(CallNotPermittedException ex) {
         return ResponseBuilder.error(HttpStatus.SERVICE_UNAVAILABLE.value(), "SERVICE_UNAVAILABLE", "Please try again later");
     }
+    @ExceptionHandler(UserException.class)
+    public ResponseEntity<ApiResponseDto<Void>> handleUserException(UserException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatus());
+        return ResponseBuilder.error(status.value(), status.name(), ex.getMessage());
+    }
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponseDto<Void>> handleGeneric(Exception ex) {
         return ResponseBuilder.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), "INTERNAL_ERROR", "Unexpected error");
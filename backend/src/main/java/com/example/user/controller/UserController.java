@@ -1,33 +1,103 @@
 package com.example.user.controller;
 
 import com.example.user.api.*;
+import com.example.user.configuration.BinaryContentConfig;
+import com.example.user.configuration.ReadYourWritesContext;
+import com.example.user.service.UserCreateBatcher;
 import com.example.user.service.UserService;
+import com.example.user.service.UserStatsStream;
+import com.example.user.service.UserWriteEpoch;
 import com.example.user.utils.ResponseBuilder;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
-@RequestMapping(path = "/api/users", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api/users", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+        BinaryContentConfig.APPLICATION_SMILE_VALUE})
 public class UserController {
+    private static final MediaType SMILE = MediaType.parseMediaType(BinaryContentConfig.APPLICATION_SMILE_VALUE);
     @Autowired
     private UserService userService;
+    @Autowired(required = false)
+    private UserCreateBatcher createBatcher;
+    @Autowired
+    private UserWriteEpoch writeEpoch;
+    @Autowired
+    private UserStatsStream statsStream;
+    // createdLast24h also moves when rows age out of the window, so the stats tag includes the current slot
+    @Value("${users.etag.stats-granularity:1m}")
+    private Duration statsGranularity = Duration.ofMinutes(1);
+    @Autowired
+    private ContentNegotiationManager contentNegotiation;
+    @Value("${users.etag.enabled:true}")
+    private boolean etags = true;
 
     @PostMapping
     public ResponseEntity<ApiResponseDto<UserResponse>> create(@Valid @RequestBody CreateUserRequest req) {
-        return ResponseBuilder.created(userService.create(req));
+        return ResponseBuilder.created(createBatcher != null ? createBatcher.create(req) : userService.create(req));
     }
 
+    /**
+     * One page of users. Only the filters that are given end up in the query; {@code active} wins over the older
+     * {@code activeOnly}. {@code sort} is {@code createdAt} or {@code updatedAt}, optionally {@code ,asc}.
+     */
     @GetMapping
     public ResponseEntity<ApiResponseDto<PagedResponse<UserResponse>>> userList(@RequestParam(defaultValue = "0") int page,
                                                        @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String q,
-                                                       @RequestParam(defaultValue = "true") boolean activeOnly, @RequestParam(required = false) String sort) {
-        return ResponseBuilder.success(PagedResponse.toPagedResponse(userService.getList(q, activeOnly, page, size, sort)));
+                                                       @RequestParam(defaultValue = "true") boolean activeOnly, @RequestParam(required = false) Boolean active,
+                                                       @RequestParam(required = false) Instant createdFrom, @RequestParam(required = false) Instant createdTo,
+                                                       @RequestParam(required = false) String emailDomain, @RequestParam(required = false) String namePrefix,
+                                                       @RequestParam(required = false) String sort,
+                                                       NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        if (etags && request.checkNotModified(etag(request))) {
+            return null;
+        }
+        UserFilter filter = UserFilter.builder()
+                .q(q)
+                .active(active != null ? active : activeOnly ? Boolean.TRUE : null)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .emailDomain(emailDomain)
+                .namePrefix(namePrefix)
+                .build();
+        // clients may keep the body but must ask again, which is cheap with If-None-Match
+        return ResponseBuilder.success(PagedResponse.toPagedResponse(userService.getList(filter, page, size, sort)),
+                CacheControl.noCache());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponseDto<UserChangesResponse>> changes(@RequestParam(required = false) String since,
+                                                                      @RequestParam(defaultValue = "500") int limit) {
+        return ResponseBuilder.success(userService.getChanges(since, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponseDto<UserResponse>> getById(@PathVariable UUID id) {
+        return ResponseBuilder.success(userService.getById(id));
     }
 
     @DeleteMapping("/{id}")
@@ -37,12 +107,71 @@ public class UserController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponseDto<UserStatsResponseDto>> stats() {
-        return ResponseBuilder.success(userService.getStats());
+    public ResponseEntity<ApiResponseDto<UserStatsResponseDto>> stats(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        long slot = Instant.now().toEpochMilli() / statsGranularity.toMillis();
+        if (etags && request.checkNotModified(etag(request, Long.toString(slot, 36)))) {
+            return null;
+        }
+        return ResponseBuilder.success(userService.getStats(), CacheControl.noCache());
     }
 
+    @GetMapping(path = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> statsStream() {
+        SseEmitter emitter = statsStream.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+    }
 
+    /**
+     * The current tag of this resource. It is read on the primary, and so is the body that follows on a miss: a
+     * lagging replica would pair the tag with an older body that later conditional GETs keep confirming.
+     */
+    private String etag(NativeWebRequest request, String... parts) throws HttpMediaTypeNotAcceptableException {
+        ReadYourWritesContext.pinToPrimary();
+        String[] all = Arrays.copyOf(parts, parts.length + 1);
+        all[parts.length] = representation(request);
+        return writeEpoch.etag(all);
+    }
 
+    /**
+     * JSON, CBOR and Smile bodies of the same data are different representations and need their own tags, so the tag
+     * names the type the message converters will write: the most specific accepted type this mapping produces, the
+     * same choice {@code AbstractMessageConverterMethodProcessor} makes. Caches are told the body depends on Accept.
+     */
+    private String representation(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        MediaType selected = selectedMediaType(request);
+        if (selected == null || MediaType.APPLICATION_JSON.isCompatibleWith(selected)) {
+            return "j";
+        }
+        return MediaType.APPLICATION_CBOR.isCompatibleWith(selected) ? "c"
+                : SMILE.isCompatibleWith(selected) ? "s" : selected.getSubtype();
+    }
 
+    // null when nothing acceptable is produced; the converters answer that with 406 and no tag is sent
+    private MediaType selectedMediaType(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        @SuppressWarnings("unchecked")
+        Set<MediaType> producible = (Set<MediaType>) request.getAttribute(
+                HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (producible == null || producible.isEmpty()) {
+            return null;
+        }
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType accepted : contentNegotiation.resolveMediaTypes(request)) {
+            for (MediaType produced : producible) {
+                if (accepted.isCompatibleWith(produced)) {
+                    MediaType use = produced.copyQualityValue(accepted);
+                    compatible.add(accepted.isLessSpecific(use) ? use : accepted);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.stream().filter(MediaType::isConcrete).findFirst().orElse(null);
+    }
 }
 
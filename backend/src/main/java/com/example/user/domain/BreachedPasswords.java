@@ -0,0 +1,181 @@
+package com.example.user.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Offline breached-password check ({@code users.password.breached-file}) against a corpus built by
+ * {@link BreachedPasswordsBuilder}: a 16-byte header (magic, entry count), then the first 64 bits of each password's
+ * SHA-1 as big-endian longs, sorted unsigned and distinct. At a billion entries 64 bits give roughly one false
+ * positive per 10^10 lookups. The file is mapped read-only in 1 GiB regions, so the corpus lives in the page cache
+ * and not on the heap. SHA-1 prefixes are uniform, so an interpolation search usually finds an entry in a few probes.
+ * Ranges narrower than {@value #BINARY_BELOW} entries are bisected, and after {@value #MAX_INTERPOLATIONS}
+ * interpolation steps the rest of the search is binary, so a corpus that is not uniform (a hand-made list, a
+ * cluster of near-equal prefixes) costs at most {@value #MAX_INTERPOLATIONS} + log2(entries) probes instead of
+ * a linear scan. A lookup hashes into per-thread buffers and allocates nothing.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "users.password.breached-file")
+public class BreachedPasswords {
+    static final long MAGIC = 0x50574e4453484131L; // "PWNDSHA1"
+    static final int HEADER = 16;
+    private static final int REGION_SHIFT = 27; // 2^27 entries of 8 bytes per mapping
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+    private static final int BINARY_BELOW = 64;
+    private static final int MAX_INTERPOLATIONS = 16;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final MappedByteBuffer[] regions;
+    private final long count;
+
+    public BreachedPasswords(@Value("${users.password.breached-file}") Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && ch.read(header) >= 0) {
+            }
+            if (header.position() < HEADER || header.getLong(0) != MAGIC) {
+                throw new IOException("Not a breached-password file: " + file);
+            }
+            count = header.getLong(8);
+            if (count < 0 || HEADER + count * Long.BYTES != ch.size()) {
+                throw new IOException("Breached-password file " + file + " is truncated: " + count + " entries, " + ch.size() + " bytes");
+            }
+            regions = new MappedByteBuffer[(int) ((count + REGION_MASK) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++) {
+                long first = (long) i << REGION_SHIFT;
+                long entries = Math.min(count - first, 1L << REGION_SHIFT);
+                regions[i] = ch.map(FileChannel.MapMode.READ_ONLY, HEADER + first * Long.BYTES, entries * Long.BYTES);
+            }
+        }
+        log.info("Breached-password corpus {}: {} entries", file.toAbsolutePath(), count);
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /** Whether the SHA-1 of the UTF-8 bytes of {@code password} is in the corpus. */
+    public boolean contains(CharSequence password) {
+        return containsPrefix(prefix(password, SCRATCH.get()));
+    }
+
+    boolean containsPrefix(long prefix) {
+        return probes(prefix) >= 0;
+    }
+
+    /** Entries compared to find {@code prefix}: the count when it is found, its complement ({@code ~count}) when not. */
+    int probes(long prefix) {
+        // compare unsigned values as signed ones by flipping the sign bit
+        long key = prefix ^ Long.MIN_VALUE;
+        long lo = 0;
+        long hi = count - 1;
+        int interpolations = 0;
+        int probes = 0;
+        while (lo <= hi) {
+            long mid;
+            if (hi - lo < BINARY_BELOW || interpolations++ >= MAX_INTERPOLATIONS) {
+                mid = (lo + hi) >>> 1;
+            } else {
+                long low = entry(lo);
+                long high = entry(hi);
+                if (key < low || key > high) {
+                    return ~probes;
+                }
+                // doubles, because high - low can overflow a long
+                double fraction = ((double) key - (double) low) / ((double) high - (double) low);
+                mid = Math.min(hi, Math.max(lo, lo + (long) (fraction * (hi - lo))));
+            }
+            long value = entry(mid);
+            probes++;
+            if (value == key) {
+                return probes;
+            }
+            if (value < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return ~probes;
+    }
+
+    /** Entry {@code i} with its sign bit flipped. */
+    private long entry(long i) {
+        return regions[(int) (i >>> REGION_SHIFT)].getLong((int) (i & REGION_MASK) * Long.BYTES) ^ Long.MIN_VALUE;
+    }
+
+    /** First 64 bits of the SHA-1 of the UTF-8 encoding of {@code password}. */
+    static long prefix(CharSequence password, Scratch s) {
+        int n = s.encode(password);
+        s.sha1.update(s.utf8, 0, n);
+        try {
+            s.sha1.digest(s.digest, 0, s.digest.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        long prefix = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            prefix = prefix << 8 | (s.digest[i] & 0xff);
+        }
+        return prefix;
+    }
+
+    /** Per-thread digest and buffers; {@link #encode} matches {@code String.getBytes(UTF_8)} without allocating. */
+    static final class Scratch {
+        final MessageDigest sha1;
+        final byte[] digest = new byte[20];
+        byte[] utf8 = new byte[128];
+
+        Scratch() {
+            try {
+                sha1 = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int encode(CharSequence s) {
+            int len = s.length();
+            if (utf8.length < len * 3) {
+                utf8 = new byte[len * 3];
+            }
+            byte[] out = utf8;
+            int n = 0;
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    out[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[n++] = (byte) (0xc0 | c >> 6);
+                    out[n++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    out[n++] = (byte) (0xf0 | cp >> 18);
+                    out[n++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                    out[n++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                    out[n++] = (byte) (0x80 | cp & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    out[n++] = '?';
+                } else {
+                    out[n++] = (byte) (0xe0 | c >> 12);
+                    out[n++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    out[n++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            return n;
+        }
+    }
+}
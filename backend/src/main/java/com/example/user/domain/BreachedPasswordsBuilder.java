@@ -0,0 +1,175 @@
+package com.example.user.domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Turns a text list into the file {@link BreachedPasswords} maps. By default every line starts with a hex SHA-1, as
+ * in the Have I Been Pwned download ({@code <40 hex>:<count>}); with {@code --plain} every line is a password.
+ * Lines are read in chunks of {@code --chunk} entries (16M, 128 MiB of heap), each chunk is sorted into a temporary
+ * run next to the output, and the runs are merged and de-duplicated, so the corpus can be far larger than the heap.
+ * <pre>
+ * BreachedPasswordsBuilder &lt;input.txt&gt; &lt;output.bin&gt; [--plain] [--chunk &lt;entries&gt;]
+ * </pre>
+ */
+public class BreachedPasswordsBuilder {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: BreachedPasswordsBuilder <input.txt> <output.bin> [--plain] [--chunk <entries>]");
+            System.exit(2);
+        }
+        boolean plain = false;
+        int chunk = 1 << 24;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--plain" -> plain = true;
+                case "--chunk" -> {
+                    if (++i == args.length) {
+                        throw new IllegalArgumentException("Missing value for --chunk");
+                    }
+                    chunk = Integer.parseInt(args[i]);
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        try (BufferedReader in = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            long entries = build(in, Path.of(args[1]), plain, chunk);
+            System.out.println(entries + " entries written to " + args[1]);
+        }
+    }
+
+    /** Builds {@code out} from the lines of {@code in} and returns the number of distinct entries. */
+    public static long build(BufferedReader in, Path out, boolean plain, int chunkEntries) throws IOException {
+        if (chunkEntries <= 0) {
+            throw new IllegalArgumentException("chunkEntries must be positive: " + chunkEntries);
+        }
+        Path parent = out.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        List<Path> runs = new ArrayList<>();
+        try {
+            BreachedPasswords.Scratch scratch = new BreachedPasswords.Scratch();
+            long[] buffer = new long[chunkEntries];
+            int n = 0;
+            int lineNo = 0;
+            for (String line; (line = in.readLine()) != null; ) {
+                lineNo++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                long prefix = plain ? BreachedPasswords.prefix(line, scratch) : parseHex(line, lineNo);
+                // stored with the sign bit flipped, so a signed sort is the unsigned order
+                buffer[n++] = prefix ^ Long.MIN_VALUE;
+                if (n == buffer.length) {
+                    runs.add(writeRun(buffer, n, parent));
+                    n = 0;
+                }
+            }
+            if (n > 0 || runs.isEmpty()) {
+                runs.add(writeRun(buffer, n, parent));
+            }
+            return merge(runs, out);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static long parseHex(String line, int lineNo) {
+        if (line.length() < 16) {
+            throw new IllegalArgumentException("Line " + lineNo + " does not start with a SHA-1: " + line);
+        }
+        try {
+            return Long.parseUnsignedLong(line, 0, 16, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNo + " does not start with a SHA-1: " + line);
+        }
+    }
+
+    private static Path writeRun(long[] buffer, int n, Path dir) throws IOException {
+        Arrays.sort(buffer, 0, n);
+        Path run = Files.createTempFile(dir, "breached-", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (int i = 0; i < n; i++) {
+                out.writeLong(buffer[i]);
+            }
+        }
+        return run;
+    }
+
+    private static long merge(List<Path> runs, Path out) throws IOException {
+        PriorityQueue<Run> heads = new PriorityQueue<>();
+        long count = 0;
+        try (DataOutputStream dst = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out), 1 << 16))) {
+            dst.writeLong(BreachedPasswords.MAGIC);
+            dst.writeLong(0);
+            for (Path path : runs) {
+                Run run = new Run(new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16)));
+                if (run.advance()) {
+                    heads.add(run);
+                }
+            }
+            long last = 0;
+            while (!heads.isEmpty()) {
+                Run run = heads.poll();
+                if (count == 0 || run.head != last) {
+                    dst.writeLong(run.head ^ Long.MIN_VALUE);
+                    last = run.head;
+                    count++;
+                }
+                if (run.advance()) {
+                    heads.add(run);
+                }
+            }
+        } finally {
+            for (Run run : heads) {
+                run.in.close();
+            }
+        }
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(Long.BYTES).putLong(0, count), 8);
+            ch.force(true);
+        }
+        return count;
+    }
+
+    private static final class Run implements Comparable<Run> {
+        final DataInputStream in;
+        long head;
+
+        Run(DataInputStream in) {
+            this.in = in;
+        }
+
+        boolean advance() throws IOException {
+            try {
+                head = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                in.close();
+                return false;
+            }
+        }
+
+        @Override
+        public int compareTo(Run o) {
+            return Long.compare(head, o.head);
+        }
+    }
+}
@@ -1,30 +1,41 @@
 package com.example.user.domain;
 
+import com.example.user.exceptions.BreachedPasswordException;
 import com.example.user.exceptions.RequiredParamsException;
 import com.example.user.exceptions.ShortPasswordException;
 import com.example.user.exceptions.WeakPasswordException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PasswordPolicy {
+    private final PasswordRules rules;
+    private final BreachedPasswords breached;
+
+    public PasswordPolicy() {
+        this(PasswordRules.DEFAULT, null);
+    }
+
+    @Autowired
+    public PasswordPolicy(PasswordRules rules, @Nullable BreachedPasswords breached) {
+        this.rules = rules;
+        this.breached = breached;
+    }
 
     public void validate(String email, String password) {
         if (email == null || password == null) {
             throw new RequiredParamsException("Email/Password required");
         }
-        boolean isExample = email.toLowerCase().endsWith("@example.com");
-        int minLen = isExample ? 12 : 8;
-
-        if (password.length() < minLen) {
+        PasswordRules.Violation violation = rules.check(email, password);
+        if (violation == PasswordRules.Violation.TOO_SHORT) {
             throw new ShortPasswordException("Password too short");
         }
-        int categories = 0;
-        if (password.matches(".*[a-z].*")) categories++;
-        if (password.matches(".*[A-Z].*")) categories++;
-        if (password.matches(".*\\d.*"))   categories++;
-        if (password.matches(".*[^A-Za-z0-9].*")) categories++;
-        if (categories < 3) {
+        if (violation != null) {
             throw new WeakPasswordException("Weak password");
         }
+        if (breached != null && breached.contains(password)) {
+            throw new BreachedPasswordException("Password appears in a known data breach");
+        }
     }
 }
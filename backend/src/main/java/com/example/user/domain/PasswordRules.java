@@ -0,0 +1,137 @@
+package com.example.user.domain;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Compiled password rules: a base {@link Rule} and per-domain overrides picked by the e-mail address. A check reads
+ * the password once, collecting its character classes into a bit mask and stopping as soon as all four are seen, and
+ * allocates nothing. Classes are ASCII: anything that is not {@code [a-z]}, {@code [A-Z]} or {@code [0-9]} is
+ * {@link CharClass#OTHER}. Immutable and thread-safe; built from {@code users.password.rules}.
+ */
+public final class PasswordRules {
+    private static final int LOWER = 1;
+    private static final int UPPER = 2;
+    private static final int DIGIT = 4;
+    private static final int OTHER = 8;
+    private static final int ALL = LOWER | UPPER | DIGIT | OTHER;
+
+    public static final PasswordRules DEFAULT = new PasswordRules(new Rule(8, 3, Set.of()),
+            List.of(new DomainRule("example.com", new Rule(12, 3, Set.of()))));
+
+    public enum CharClass {
+        LOWER(PasswordRules.LOWER), UPPER(PasswordRules.UPPER), DIGIT(PasswordRules.DIGIT), OTHER(PasswordRules.OTHER);
+
+        final int bit;
+
+        CharClass(int bit) {
+            this.bit = bit;
+        }
+    }
+
+    public enum Violation {
+        TOO_SHORT, TOO_FEW_CLASSES, MISSING_CLASS
+    }
+
+    /**
+     * @param minLength  minimum length in chars
+     * @param minClasses how many of the four {@link CharClass}es must appear
+     * @param required   classes that must appear regardless of {@code minClasses}
+     */
+    public record Rule(int minLength, int minClasses, Set<CharClass> required) {
+        public Rule {
+            if (minLength < 0) {
+                throw new IllegalArgumentException("minLength must not be negative: " + minLength);
+            }
+            if (minClasses < 0 || minClasses > CharClass.values().length) {
+                throw new IllegalArgumentException("minClasses must be between 0 and 4: " + minClasses);
+            }
+            required = Set.copyOf(required);
+        }
+
+        int requiredMask() {
+            int mask = 0;
+            for (CharClass c : required) {
+                mask |= c.bit;
+            }
+            return mask;
+        }
+    }
+
+    /** {@code rule} applies to addresses ending in {@code @domain}, compared ignoring case. */
+    public record DomainRule(String domain, Rule rule) {
+        public DomainRule {
+            if (domain == null || domain.isBlank() || domain.contains("@")) {
+                throw new IllegalArgumentException("Not a domain: " + domain);
+            }
+        }
+    }
+
+    private final Compiled base;
+    private final String[] suffixes;
+    private final Compiled[] domainRules;
+
+    public PasswordRules(Rule base, List<DomainRule> domains) {
+        this.base = new Compiled(base);
+        this.suffixes = new String[domains.size()];
+        this.domainRules = new Compiled[domains.size()];
+        for (int i = 0; i < domains.size(); i++) {
+            suffixes[i] = "@" + domains.get(i).domain().trim().toLowerCase(Locale.ROOT);
+            domainRules[i] = new Compiled(domains.get(i).rule());
+        }
+    }
+
+    /** The first rule {@code password} breaks for {@code email}, or {@code null} if it passes. */
+    public Violation check(String email, String password) {
+        Compiled rule = ruleFor(email);
+        int len = password.length();
+        if (len < rule.minLength) {
+            return Violation.TOO_SHORT;
+        }
+        int seen = 0;
+        for (int i = 0; i < len && seen != ALL; i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                seen |= LOWER;
+            } else if (c >= 'A' && c <= 'Z') {
+                seen |= UPPER;
+            } else if (c >= '0' && c <= '9') {
+                seen |= DIGIT;
+            } else {
+                seen |= OTHER;
+            }
+        }
+        if (Integer.bitCount(seen) < rule.minClasses) {
+            return Violation.TOO_FEW_CLASSES;
+        }
+        if ((seen & rule.requiredMask) != rule.requiredMask) {
+            return Violation.MISSING_CLASS;
+        }
+        return null;
+    }
+
+    /** The rule for {@code email}: the first domain it ends in, else the base rule. */
+    private Compiled ruleFor(String email) {
+        for (int i = 0; i < suffixes.length; i++) {
+            String suffix = suffixes[i];
+            if (email.regionMatches(true, email.length() - suffix.length(), suffix, 0, suffix.length())) {
+                return domainRules[i];
+            }
+        }
+        return base;
+    }
+
+    // the record's fields unpacked, so the check reads plain ints
+    private static final class Compiled {
+        final int minLength;
+        final int minClasses;
+        final int requiredMask;
+
+        Compiled(Rule rule) {
+            this.minLength = rule.minLength();
+            this.minClasses = rule.minClasses();
+            this.requiredMask = rule.requiredMask();
+        }
+    }
+}
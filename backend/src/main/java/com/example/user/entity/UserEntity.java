@@ -7,6 +7,7 @@ import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
@@ -45,9 +46,23 @@ public class UserEntity {
     @Column(nullable = false)
     private Long version;
 
+    // generated columns (V3__filter_columns.sql), only read by the list filters
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Column(name = "email_domain", insertable = false, updatable = false)
+    private String emailDomain;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Column(name = "name_normalized", insertable = false, updatable = false)
+    private String nameNormalized;
+
     @PrePersist
     void onCreate() {
-        Instant now = Instant.now();
+        Instant now = now();
         createdAt = now;
         updatedAt = now;
         if (email != null) email = email.trim().toLowerCase();
@@ -55,9 +70,14 @@ public class UserEntity {
 
     @PreUpdate
     void onUpdate() {
-        updatedAt = Instant.now();
+        updatedAt = now();
         if (email != null) email = email.trim().toLowerCase();
     }
+    // timestamp columns keep microseconds, so keep the entity equal to what a re-read would return
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     public static UserResponse toResponse(UserEntity u) {
         return UserResponse.builder()
                 .id(u.getId())
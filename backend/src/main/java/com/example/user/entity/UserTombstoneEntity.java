@@ -0,0 +1,22 @@
+package com.example.user.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTombstoneEntity {
+    @Id
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private Instant deletedAt;
+}
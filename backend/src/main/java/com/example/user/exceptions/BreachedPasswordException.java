@@ -0,0 +1,9 @@
+package com.example.user.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+public class BreachedPasswordException extends UserException {
+    public BreachedPasswordException(String message) {
+        super(HttpStatus.BAD_REQUEST.value(), message);
+    }
+}
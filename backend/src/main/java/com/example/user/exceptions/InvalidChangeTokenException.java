@@ -0,0 +1,7 @@
+package com.example.user.exceptions;
+
+public class InvalidChangeTokenException extends RequiredParamsException {
+    public InvalidChangeTokenException(String message) {
+        super(message);
+    }
+}
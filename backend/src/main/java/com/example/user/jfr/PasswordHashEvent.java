@@ -0,0 +1,18 @@
+package com.example.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.user.PasswordHash")
+@Label("Password Hash")
+@Description("One BCrypt encode or matches call")
+@Category({"User Management"})
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+    @Label("Operation")
+    public String operation;
+}
@@ -0,0 +1,22 @@
+package com.example.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.user.Create")
+@Label("User Create")
+@Description("POST /api/users, from validation to the row being written")
+@Category({"User Management"})
+@StackTrace(false)
+public class UserCreateEvent extends Event {
+    @Label("Batched")
+    public boolean batched;
+
+    @Label("Outcome")
+    @Description("created, or the simple name of the exception that ended the call")
+    public String outcome = "failed";
+}
@@ -0,0 +1,22 @@
+package com.example.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.user.Delete")
+@Label("User Delete")
+@Description("DELETE /api/users/{id}")
+@Category({"User Management"})
+@StackTrace(false)
+public class UserDeleteEvent extends Event {
+    @Label("Soft")
+    public boolean soft;
+
+    @Label("Outcome")
+    @Description("deleted, or the simple name of the exception that ended the call")
+    public String outcome = "failed";
+}
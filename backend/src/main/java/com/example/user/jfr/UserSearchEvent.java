@@ -0,0 +1,42 @@
+package com.example.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.user.Search")
+@Label("User Search")
+@Description("GET /api/users, one page of the list or a search")
+@Category({"User Management"})
+@StackTrace(false)
+public class UserSearchEvent extends Event {
+    @Label("Page")
+    public int page;
+
+    @Label("Page Size")
+    public int pageSize;
+
+    @Label("Query Length")
+    @Description("Length of q, 0 when listing without a query")
+    public int queryLength;
+
+    @Label("Active Only")
+    public boolean activeOnly;
+
+    @Label("Filters")
+    @Description("Names of the filters that were set, e.g. active,emailDomain")
+    public String filters;
+
+    @Label("Sort")
+    public String sort;
+
+    @Label("Rows")
+    @Description("Rows returned in this page")
+    public int rows;
+
+    @Label("Total Rows")
+    public long totalRows;
+}
@@ -0,0 +1,18 @@
+package com.example.user.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.user.Stats")
+@Label("User Stats")
+@Description("GET /api/users/stats")
+@Category({"User Management"})
+@StackTrace(false)
+public class UserStatsEvent extends Event {
+    @Label("Created Last 24h")
+    public long createdLast24h;
+}
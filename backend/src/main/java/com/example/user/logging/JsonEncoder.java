@@ -0,0 +1,108 @@
+package com.example.user.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One JSON object per line: {@code @timestamp}, {@code level}, {@code thread}, {@code logger},
+ * {@code message}, the MDC entries (the trace id among them) and {@code stack_trace}. An MDC key that is one of
+ * those names is written as {@code mdc.<key>}, so a line never has duplicate keys. The builder is sized from the
+ * event up front, so an ordinary line is written without growing it.
+ */
+public class JsonEncoder extends EncoderBase<ILoggingEvent> {
+    private static final byte[] EMPTY = new byte[0];
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    // field names, quotes and the timestamp of a line without MDC
+    private static final int FIXED_SIZE = 128;
+    private static final Set<String> RESERVED = Set.of("@timestamp", "level", "thread", "logger", "message", "stack_trace");
+    private static final String MDC_PREFIX = "mdc.";
+
+    @Override
+    public byte[] headerBytes() {
+        return EMPTY;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        IThrowableProxy throwable = event.getThrowableProxy();
+        String stackTrace = throwable == null ? null : ThrowableProxyUtil.asString(throwable);
+
+        int size = FIXED_SIZE + event.getLoggerName().length() + event.getThreadName().length()
+                + (message == null ? 4 : message.length() + message.length() / 8)
+                + (stackTrace == null ? 0 : stackTrace.length() + stackTrace.length() / 8);
+        for (Map.Entry<String, String> e : mdc.entrySet()) {
+            size += e.getKey().length() + MDC_PREFIX.length() + (e.getValue() == null ? 4 : e.getValue().length()) + 6;
+        }
+        StringBuilder sb = new StringBuilder(size);
+        sb.append("{\"@timestamp\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.getTimeStamp()), sb);
+        sb.append("\",\"level\":\"").append(event.getLevel().levelStr).append('"');
+        field(sb, "thread", event.getThreadName());
+        field(sb, "logger", event.getLoggerName());
+        field(sb, "message", message);
+        for (Map.Entry<String, String> e : mdc.entrySet()) {
+            String key = e.getKey();
+            if (RESERVED.contains(key)) {
+                key = MDC_PREFIX + key;
+                if (mdc.containsKey(key)) {
+                    // the MDC has both "x" and "mdc.x"; the latter is written under its own name
+                    continue;
+                }
+            }
+            field(sb, key, e.getValue());
+        }
+        if (stackTrace != null) {
+            field(sb, "stack_trace", stackTrace);
+        }
+        sb.append("}\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return EMPTY;
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        sb.append(',');
+        string(sb, name);
+        sb.append(':');
+        if (value == null) {
+            sb.append("null");
+        } else {
+            string(sb, value);
+        }
+    }
+
+    private static void string(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
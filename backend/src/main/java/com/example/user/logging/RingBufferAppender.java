@@ -0,0 +1,184 @@
+package com.example.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.example.user.utils.RingBuffer;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous appender on a lock-free {@link RingBuffer}: the logging thread only prepares the event and
+ * offers it, a single worker hands it to the attached appenders. When the buffer is full, TRACE/DEBUG/INFO
+ * events are dropped and counted; WARN and ERROR wait for room instead, so they are never lost.
+ *
+ * <pre>
+ * &lt;appender name="ASYNC" class="com.example.user.logging.RingBufferAppender"&gt;
+ *     &lt;bufferSize&gt;8192&lt;/bufferSize&gt;
+ *     &lt;appender-ref ref="JSON_CONSOLE"/&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+    private static final int MAX_DRAIN = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong droppedDebug = new AtomicLong();
+    private final AtomicLong droppedInfo = new AtomicLong();
+    private final AtomicLong appended = new AtomicLong();
+    private int bufferSize = 8192;
+    private int maxFlushTime = 1000;
+    private boolean includeCallerData;
+    private RingBuffer<ILoggingEvent> buffer;
+    private volatile Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to " + getName());
+            return;
+        }
+        buffer = new RingBuffer<>(bufferSize);
+        Thread t = new Thread(this::drainLoop, "logback-ring-buffer-" + getName());
+        t.setDaemon(true);
+        worker = t;
+        super.start();
+        t.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        Thread t = worker;
+        LockSupport.unpark(t);
+        try {
+            t.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // formats the message and copies the MDC while still on the calling thread
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (buffer.offer(event)) {
+            return;
+        }
+        Level level = event.getLevel();
+        if (level.toInt() < Level.WARN_INT) {
+            (level.toInt() <= Level.DEBUG_INT ? droppedDebug : droppedInfo).incrementAndGet();
+            return;
+        }
+        while (!buffer.offer(event)) {
+            if (worker == null) {
+                // shutting down, nobody will drain any more
+                appenders.appendLoopOnAppenders(event);
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    private void drainLoop() {
+        while (isStarted() || !buffer.isEmpty()) {
+            int drained = buffer.drain(appenders::appendLoopOnAppenders, MAX_DRAIN);
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } else {
+                appended.addAndGet(drained);
+            }
+        }
+    }
+
+    public long getDroppedDebug() {
+        return droppedDebug.get();
+    }
+
+    public long getDroppedInfo() {
+        return droppedInfo.get();
+    }
+
+    public long getAppended() {
+        return appended.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.user.repository;
+
+import com.example.user.api.UserFilter;
+import com.example.user.entity.UserEntity;
+import com.example.user.exceptions.RequiredParamsException;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * {@code users} spread over N databases. The shard of a user is {@code hash(id) % N}; email lookups go
+ * through a small email -> shard directory kept on shard 0. Searches fan out to every shard in parallel
+ * and are merged in the page's sort order ({@code createdAt} or {@code updatedAt}, then {@code id}), the same
+ * order a single database returns; without a sort it is {@code created_at desc, id desc}.
+ */
+public class ShardedUserStore implements DisposableBean {
+    private static final String COLUMNS =
+            "id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version";
+    private static final RowMapper<UserEntity> ROW_MAPPER = (rs, i) -> UserEntity.builder()
+            .id(rs.getObject("id", UUID.class))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .passwordHash(rs.getString("password_hash"))
+            .active(rs.getBoolean("is_active"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .updatedAt(rs.getTimestamp("updated_at").toInstant())
+            .version(rs.getLong("version"))
+            .build();
+    // same order as H2 sorts uuids: unsigned, most significant half first
+    private static final Comparator<UserEntity> BY_ID = Comparator
+            .comparing((UserEntity u) -> u.getId().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(u -> u.getId().getLeastSignificantBits(), Long::compareUnsigned);
+    private static final Map<String, SortKey> SORT_KEYS = Map.of(
+            "createdAt", new SortKey("created_at", Comparator.comparing(UserEntity::getCreatedAt)),
+            "updatedAt", new SortKey("updated_at", Comparator.comparing(UserEntity::getUpdatedAt)),
+            "id", new SortKey("id", BY_ID));
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards;
+    private final JdbcTemplate directory;
+    private final ForkJoinPool pool;
+
+    public ShardedUserStore(List<DataSource> shards, int parallelism) {
+        this.dataSources = shards;
+        this.shards = shards.stream().map(JdbcTemplate::new).toList();
+        this.directory = this.shards.get(0);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public void initSchema() {
+        for (DataSource shard : dataSources) {
+            Flyway.configure().dataSource(shard).baselineOnMigrate(true).load().migrate();
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("sharding-directory.sql")).execute(directory.getDataSource());
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), shards.size());
+    }
+
+    /** Claims the email in the directory first, so a duplicate fails before anything hits a shard. */
+    public UserEntity insert(UserEntity u) {
+        int shard = shardOf(u.getId());
+        directory.update("insert into user_email_directory (email, user_id, shard) values (?, ?, ?)",
+                u.getEmail(), u.getId(), shard);
+        try {
+            shards.get(shard).update("insert into users (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    u.getId(), u.getFirstName(), u.getLastName(), u.getEmail(), u.getPasswordHash(), u.isActive(),
+                    Timestamp.from(u.getCreatedAt()), Timestamp.from(u.getUpdatedAt()), u.getVersion());
+        } catch (RuntimeException e) {
+            directory.update("delete from user_email_directory where email = ?", u.getEmail());
+            throw e;
+        }
+        return u;
+    }
+
+    public Optional<UserEntity> findById(UUID id) {
+        return shards.get(shardOf(id)).query("select " + COLUMNS + " from users where id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<UserEntity> findByEmail(String email) {
+        return directory.query("select user_id from user_email_directory where email = ?",
+                        (rs, i) -> rs.getObject(1, UUID.class), email.trim().toLowerCase())
+                .stream().findFirst()
+                .flatMap(this::findById);
+    }
+
+    public void deactivate(UserEntity u) {
+        shards.get(shardOf(u.getId())).update(
+                "update users set is_active = false, updated_at = ?, version = version + 1 where id = ?",
+                Timestamp.from(Instant.now()), u.getId());
+    }
+
+    public void delete(UserEntity u) {
+        shards.get(shardOf(u.getId())).update("delete from users where id = ?", u.getId());
+        directory.update("delete from user_email_directory where email = ?", u.getEmail());
+    }
+
+    public long countUsersCreatedSince(Instant since) {
+        return scatter(shard -> shard.queryForObject("select count(*) from users where created_at >= ?",
+                Long.class, Timestamp.from(since)))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Every shard returns its first {@code offset + size} matches already ordered, so the global page is
+     * the k-way merge of those lists after skipping {@code offset} rows.
+     */
+    /** Rows over every shard and the latest {@code updated_at} among them; every write moves one of the two. */
+    public Watermark watermark() {
+        long count = 0;
+        Instant lastUpdated = null;
+        for (Watermark w : scatter(shard -> shard.queryForObject("select count(*), max(updated_at) from users",
+                (rs, i) -> new Watermark(rs.getLong(1), instant(rs.getTimestamp(2)))))) {
+            count += w.count();
+            if (w.lastUpdated() != null && (lastUpdated == null || w.lastUpdated().isAfter(lastUpdated))) {
+                lastUpdated = w.lastUpdated();
+            }
+        }
+        return new Watermark(count, lastUpdated);
+    }
+
+    private static Instant instant(Timestamp t) {
+        return t == null ? null : t.toInstant();
+    }
+
+    public Page<UserEntity> search(UserFilter filter, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        String where = where(filter, params);
+        Object[] args = params.toArray();
+        long offset = pageable.getOffset();
+        int limit = pageable.getPageSize();
+        Ordering ordering = ordering(pageable.getSort());
+
+        List<ShardResult> results = scatter(shard -> new ShardResult(
+                shard.queryForObject("select count(*) from users" + where, Long.class, args),
+                shard.query("select " + COLUMNS + " from users" + where + " order by " + ordering.sql() + " limit "
+                        + (offset + limit), ROW_MAPPER, args)));
+
+        long total = results.stream().mapToLong(ShardResult::total).sum();
+        return new PageImpl<>(merge(results, ordering.comparator(), offset, limit), pageable, total);
+    }
+
+    public Page<UserEntity> search(String q, boolean activeOnly, Pageable pageable) {
+        return search(UserFilter.builder().q(q).active(activeOnly ? Boolean.TRUE : null).build(), pageable);
+    }
+
+    /** The ORDER BY each shard runs and the comparator that merges their rows in that same order. */
+    static Ordering ordering(Sort sort) {
+        Sort s = sort.isSorted() ? sort : NEWEST_FIRST;
+        List<String> sql = new ArrayList<>();
+        Comparator<UserEntity> comparator = null;
+        Sort.Direction last = Sort.Direction.DESC;
+        for (Sort.Order order : s) {
+            SortKey key = SORT_KEYS.get(order.getProperty());
+            if (key == null) {
+                throw new RequiredParamsException("sort must be one of createdAt, updatedAt");
+            }
+            Comparator<UserEntity> c = order.isAscending() ? key.comparator() : key.comparator().reversed();
+            comparator = comparator == null ? c : comparator.thenComparing(c);
+            sql.add(key.column() + (order.isAscending() ? " asc" : " desc"));
+            last = order.getDirection();
+        }
+        if (s.getOrderFor("id") == null) {
+            // without a unique last key, shards and pages could disagree on the order of equal timestamps
+            comparator = comparator.thenComparing(last.isAscending() ? BY_ID : BY_ID.reversed());
+            sql.add("id " + (last.isAscending() ? "asc" : "desc"));
+        }
+        return new Ordering(String.join(", ", sql), comparator);
+    }
+
+    private static List<UserEntity> merge(List<ShardResult> results, Comparator<UserEntity> order, long offset, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        for (ShardResult r : results) {
+            if (!r.rows().isEmpty()) {
+                heads.add(new Cursor(r.rows()));
+            }
+        }
+        List<UserEntity> page = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && page.size() < limit) {
+            Cursor c = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(c.head());
+            }
+            if (c.advance()) {
+                heads.add(c);
+            }
+        }
+        return page;
+    }
+
+    private <T> List<T> scatter(Function<JdbcTemplate, T> perShard) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> perShard.apply(shard), pool))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /** Same predicates as {@link UserSpecifications}, only for the filters that are set. */
+    private static String where(UserFilter filter, List<Object> args) {
+        List<String> predicates = new ArrayList<>();
+        if (filter.getActive() != null) {
+            predicates.add("is_active = ?");
+            args.add(filter.getActive());
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add("created_at >= ?");
+            args.add(Timestamp.from(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add("created_at < ?");
+            args.add(Timestamp.from(filter.getCreatedTo()));
+        }
+        if (hasText(filter.getEmailDomain())) {
+            predicates.add("email_domain = ?");
+            args.add(UserSpecifications.normalizeDomain(filter.getEmailDomain()));
+        }
+        if (hasText(filter.getNamePrefix())) {
+            String prefix = filter.getNamePrefix().trim().toLowerCase(Locale.ROOT);
+            predicates.add("name_normalized >= ? and name_normalized < ?");
+            Collections.addAll(args, prefix, UserSpecifications.prefixUpperBound(prefix));
+        }
+        if (hasText(filter.getQ())) {
+            predicates.add("(lower(first_name) like ? escape '\\' or lower(last_name) like ? escape '\\'"
+                    + " or lower(email) like ? escape '\\')");
+            String like = "%" + UserSpecifications.escapeLike(filter.getQ().toLowerCase(Locale.ROOT)) + "%";
+            Collections.addAll(args, like, like, like);
+        }
+        return predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        pool.shutdown();
+        for (DataSource ds : dataSources) {
+            if (ds instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    public record Watermark(long count, Instant lastUpdated) {
+    }
+
+    private record ShardResult(long total, List<UserEntity> rows) {
+    }
+
+    private record SortKey(String column, Comparator<UserEntity> comparator) {
+    }
+
+    record Ordering(String sql, Comparator<UserEntity> comparator) {
+    }
+
+    private static final class Cursor {
+        private final List<UserEntity> rows;
+        private int pos;
+
+        Cursor(List<UserEntity> rows) {
+            this.rows = rows;
+        }
+
+        UserEntity head() {
+            return rows.get(pos);
+        }
+
+        boolean advance() {
+            return ++pos < rows.size();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.user.repository;
 
+import com.example.user.api.UserFilter;
 import com.example.user.entity.UserEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,22 +15,32 @@ import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID>, JpaSpecificationExecutor<UserEntity> {
-    Optional<UserEntity> findByEmailIgnoreCase(String email);
+    // uq_users_email_normalized; a derived IgnoreCase query would compare upper(email) and scan
+    @Query(value = "select * from users where email_normalized = lower(trim(:email))", nativeQuery = true)
+    Optional<UserEntity> findByEmailIgnoreCase(@Param("email") String email);
 
     Page<UserEntity> findByActiveTrue(Pageable pageable);
     List<UserEntity> findByActiveTrue();
 
+    /** List page of {@code GET /api/users}; only the filters that are set reach the SQL, see {@link UserSpecifications}. */
+    default Page<UserEntity> search(UserFilter filter, Pageable pageable) {
+        return findAll(UserSpecifications.matching(filter), pageable);
+    }
+
+    default Page<UserEntity> search(String q, boolean activeOnly, Pageable pageable) {
+        return search(UserFilter.builder().q(q).active(activeOnly ? Boolean.TRUE : null).build(), pageable);
+    }
+
     @Query("""
       select u from UserEntity u
-      where (:q is null or :q = '' or
-             lower(u.firstName) like lower(concat('%', :q, '%')) or
-             lower(u.lastName)  like lower(concat('%', :q, '%')) or
-             lower(u.email)     like lower(concat('%', :q, '%')))
-        and (:activeOnly = false or u.active = true)
+      where (u.updatedAt > :after or (u.updatedAt = :after and u.id > :afterId))
+        and u.updatedAt < :upTo
+      order by u.updatedAt, u.id
     """)
-    Page<UserEntity> search(@Param("q") String q,
-                            @Param("activeOnly") boolean activeOnly,
-                            Pageable pageable);
+    List<UserEntity> findChangedAfter(@Param("after") Instant after,
+                                      @Param("afterId") UUID afterId,
+                                      @Param("upTo") Instant upTo,
+                                      Pageable limit);
 
     @Query("select count(u) from UserEntity u where u.createdAt >= :since")
     long countUsersCreatedSince(@Param("since") Instant since);
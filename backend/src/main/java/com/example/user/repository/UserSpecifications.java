@@ -0,0 +1,118 @@
+package com.example.user.repository;
+
+import com.example.user.api.UserFilter;
+import com.example.user.entity.UserEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Builds the {@code where} clause of {@code GET /api/users} from the filters that are present, and only those: a
+ * {@code (:x is null or ...)} catch-all would leave one plan for every combination and keep H2 off the indexes.
+ * Each predicate compares a column as stored, so it can drive an index of {@code V2} / {@code V3}:
+ * <ul>
+ *     <li>{@code active}: {@code idx_users_active_created_at_id}</li>
+ *     <li>{@code createdFrom} / {@code createdTo}: {@code idx_users_created_at_id}</li>
+ *     <li>{@code emailDomain}: {@code idx_users_email_domain_created_at_id}</li>
+ *     <li>{@code namePrefix}: {@code idx_users_name_normalized}</li>
+ * </ul>
+ * {@code q} is a {@code like '%q%'} on three columns and stays a scan.
+ */
+public final class UserSpecifications {
+    private static final char ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<UserEntity> matching(UserFilter filter) {
+        Specification<UserEntity> spec = Specification.where(null);
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getActive() != null) {
+            spec = spec.and(active(filter.getActive()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            spec = spec.and(createdFrom(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            spec = spec.and(createdBefore(filter.getCreatedTo()));
+        }
+        if (hasText(filter.getEmailDomain())) {
+            spec = spec.and(emailDomain(filter.getEmailDomain()));
+        }
+        if (hasText(filter.getNamePrefix())) {
+            spec = spec.and(namePrefix(filter.getNamePrefix()));
+        }
+        if (hasText(filter.getQ())) {
+            spec = spec.and(text(filter.getQ()));
+        }
+        return spec;
+    }
+
+    public static Specification<UserEntity> active(boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<UserEntity> createdFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<UserEntity> createdBefore(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    public static Specification<UserEntity> emailDomain(String domain) {
+        String normalized = normalizeDomain(domain);
+        return (root, query, cb) -> cb.equal(root.get("emailDomain"), normalized);
+    }
+
+    /**
+     * {@code name_normalized >= p and name_normalized < p + U+FFFF}: the range a {@code like 'p%'} would scan, but
+     * without depending on the planner looking into the bound pattern, and with nothing to escape.
+     */
+    public static Specification<UserEntity> namePrefix(String prefix) {
+        String from = prefix.trim().toLowerCase(Locale.ROOT);
+        String to = prefixUpperBound(from);
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("nameNormalized"), from),
+                cb.lessThan(root.get("nameNormalized"), to));
+    }
+
+    public static Specification<UserEntity> text(String q) {
+        String pattern = "%" + escapeLike(q.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern, ESCAPE),
+                cb.like(cb.lower(root.get("lastName")), pattern, ESCAPE),
+                cb.like(cb.lower(root.get("email")), pattern, ESCAPE));
+    }
+
+    /** {@code "@Example.ORG "} -> {@code "example.org"}, the form of the {@code email_domain} column. */
+    public static String normalizeDomain(String domain) {
+        String d = domain.trim().toLowerCase(Locale.ROOT);
+        return d.startsWith("@") ? d.substring(1) : d;
+    }
+
+    /** Exclusive upper bound of the strings starting with {@code prefix}, in H2's (binary) string order. */
+    public static String prefixUpperBound(String prefix) {
+        return prefix + Character.MAX_VALUE;
+    }
+
+    /** Makes {@code %}, {@code _} and the escape character match literally. */
+    public static String escapeLike(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 4);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                sb.append(ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.user.repository;
+
+import com.example.user.entity.UserTombstoneEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface UserTombstoneRepository extends JpaRepository<UserTombstoneEntity, UUID> {
+
+    @Query("""
+      select t from UserTombstoneEntity t
+      where (t.deletedAt > :after or (t.deletedAt = :after and t.id > :afterId))
+        and t.deletedAt < :upTo
+      order by t.deletedAt, t.id
+    """)
+    List<UserTombstoneEntity> findDeletedAfter(@Param("after") Instant after,
+                                               @Param("afterId") UUID afterId,
+                                               @Param("upTo") Instant upTo,
+                                               Pageable limit);
+}
@@ -0,0 +1,60 @@
+package com.example.user.service;
+
+import com.example.user.exceptions.InvalidChangeTokenException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Watermark of the change feed: the last {@code (changedAt, id)} a consumer has seen, as an opaque
+ * url-safe string. Timestamps are kept in microseconds, the precision of the {@code timestamp} columns.
+ */
+public record ChangeToken(Instant changedAt, UUID id) {
+    public static final ChangeToken START = new ChangeToken(Instant.EPOCH, new UUID(0, 0));
+    // the last microsecond a timestamp column holds; anything later cannot come from this feed
+    private static final long MAX_MICROS = micros(Instant.parse("9999-12-31T23:59:59.999999Z"));
+
+    // the order H2 uses for "order by changed_at, id" (uuids compare as unsigned)
+    public static final Comparator<ChangeToken> ORDER = Comparator
+            .comparing(ChangeToken::changedAt)
+            .thenComparing(t -> t.id().getMostSignificantBits(), Long::compareUnsigned)
+            .thenComparing(t -> t.id().getLeastSignificantBits(), Long::compareUnsigned);
+
+    public String encode() {
+        ByteBuffer buf = ByteBuffer.allocate(24)
+                .putLong(micros(changedAt))
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+    }
+
+    public static ChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidChangeTokenException("Invalid change token");
+        }
+        if (bytes.length != 24) {
+            throw new InvalidChangeTokenException("Invalid change token");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        long micros = buf.getLong();
+        if (micros < 0 || micros > MAX_MICROS) {
+            throw new InvalidChangeTokenException("Invalid change token");
+        }
+        return new ChangeToken(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), new UUID(buf.getLong(), buf.getLong()));
+    }
+
+    // ChronoUnit.MICROS.between counts in nanoseconds and overflows after the year 2262
+    static long micros(Instant t) {
+        return t.getEpochSecond() * 1_000_000 + t.getNano() / 1_000;
+    }
+}
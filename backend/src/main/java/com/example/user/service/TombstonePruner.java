@@ -0,0 +1,92 @@
+package com.example.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes change-feed tombstones older than {@code users.changes.retention}, every {@code prune-interval}, in
+ * batches of {@code batch-size} rows per statement so no delete holds locks for long. A token older than the same
+ * retention is rejected by {@link UserService#getChanges} with 410, so no consumer can miss a pruned delete.
+ */
+@Slf4j
+@Component
+// tombstones are only written to the single users database
+@ConditionalOnExpression("!${users.sharding.enabled:false}")
+public class TombstonePruner {
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${users.changes.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+    @Value("${users.changes.prune-interval:1h}")
+    private Duration interval = Duration.ofHours(1);
+    @Value("${users.changes.prune-batch-size:1000}")
+    private int batchSize = 1000;
+
+    private ScheduledExecutorService scheduler;
+    private Counter pruned;
+
+    @PostConstruct
+    void start() {
+        pruned = Counter.builder("users.changes.tombstones.pruned")
+                .description("Change-feed tombstones deleted after the retention")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-tombstone-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledRun, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /** Deletes every tombstone older than {@code now - retention}; returns how many. */
+    public synchronized long pruneNow() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbc.update("""
+                    delete from user_tombstones where id in (
+                      select id from user_tombstones where deleted_at < ? order by deleted_at limit ?)
+                    """, cutoff, batchSize);
+            total += deleted;
+            pruned.increment(deleted);
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("Pruned {} tombstones deleted before {}", total, cutoff.toInstant());
+        }
+        return total;
+    }
+
+    private void scheduledRun() {
+        try {
+            pruneNow();
+        } catch (RuntimeException e) {
+            log.warn("Tombstone prune failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.user.service;
+
+import com.example.user.entity.UserEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves users that have been inactive for longer than {@code retention} from {@code users} to {@code users_archive},
+ * so soft-deleted rows stop weighing on every list, count and index of the hot table. Every {@code interval} one
+ * pass walks the candidates in {@code (updated_at, id)} order (a soft delete stamps {@code updated_at}), at most
+ * {@code batch-size} rows per transaction. Each batch locks its rows, copies them and deletes them, and the
+ * archiver then sleeps at least as long as the batch took, so it holds locks at most half of the time. A pass
+ * stops after {@code max-run-time}; the next one picks up the rest. With {@code lookup-through} a
+ * {@code GET /api/users/{id}} that misses {@code users} also reads the archive. Archived rows leave the change feed
+ * without a tombstone, so the retention should be longer than any consumer's lag.
+ */
+@Slf4j
+@Component
+// moves rows within the single users table, so it stays off in sharded mode
+@ConditionalOnExpression("${users.archive.enabled:false} and !${users.sharding.enabled:false}")
+public class UserArchiver {
+    private static final String COLUMNS =
+            "id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version";
+    private static final RowMapper<UserEntity> ROW_MAPPER = (rs, i) -> UserEntity.builder()
+            .id(rs.getObject("id", UUID.class))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .passwordHash(rs.getString("password_hash"))
+            .active(rs.getBoolean("is_active"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .updatedAt(rs.getTimestamp("updated_at").toInstant())
+            .version(rs.getLong("version"))
+            .build();
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager txManager;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${users.archive.retention:30d}")
+    private Duration retention = Duration.ofDays(30);
+    @Value("${users.archive.interval:1h}")
+    private Duration interval = Duration.ofHours(1);
+    @Value("${users.archive.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${users.archive.pause:100ms}")
+    private Duration pause = Duration.ofMillis(100);
+    @Value("${users.archive.max-run-time:5m}")
+    private Duration maxRunTime = Duration.ofMinutes(5);
+    @Value("${users.archive.lookup-through:false}")
+    private boolean lookupThrough;
+
+    private TransactionTemplate tx;
+    private ScheduledExecutorService scheduler;
+    private Counter moved;
+    private Counter failures;
+    private Timer batches;
+
+    @PostConstruct
+    void start() {
+        tx = new TransactionTemplate(txManager);
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        moved = Counter.builder("users.archive.moved")
+                .description("Users moved to users_archive")
+                .register(registry);
+        failures = Counter.builder("users.archive.failures")
+                .description("Archive passes that stopped on an error")
+                .register(registry);
+        batches = Timer.builder("users.archive.batch")
+                .description("One archive batch: lock, copy and delete")
+                .register(registry);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledRun, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /** One pass over everything inactive since before {@code now - retention}; returns the rows moved. */
+    public synchronized long archiveNow() throws InterruptedException {
+        Instant cutoff = UserEntity.now().minus(retention);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        Cursor cursor = new Cursor(Instant.EPOCH, new UUID(0, 0));
+        long total = 0;
+        while (true) {
+            long t0 = System.nanoTime();
+            Cursor from = cursor;
+            Batch batch = tx.execute(status -> moveBatch(cutoff, from));
+            long took = System.nanoTime() - t0;
+            batches.record(took, TimeUnit.NANOSECONDS);
+            total += batch.rows();
+            moved.increment(batch.rows());
+            if (batch.rows() < batchSize || System.nanoTime() > deadline) {
+                break;
+            }
+            cursor = batch.last();
+            TimeUnit.NANOSECONDS.sleep(Math.max(pause.toNanos(), took));
+        }
+        if (total > 0) {
+            log.info("Archived {} users inactive since before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    /** The archived user, if {@code lookup-through} is on and the id was archived. */
+    public Optional<UserEntity> findArchived(UUID id) {
+        if (!lookupThrough) {
+            return Optional.empty();
+        }
+        return jdbc.query("select " + COLUMNS + " from users_archive where id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    private void scheduledRun() {
+        try {
+            archiveNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("User archive pass failed: {}", e.toString());
+        }
+    }
+
+    private Batch moveBatch(Instant cutoff, Cursor after) {
+        // the row locks keep a concurrent update or hard delete from slipping between the copy and the delete
+        List<Cursor> rows = jdbc.query("""
+                select id, updated_at from users
+                where is_active = false and updated_at < ?
+                  and (updated_at > ? or (updated_at = ? and id > ?))
+                order by updated_at, id
+                limit ?
+                for update
+                """, (rs, i) -> new Cursor(rs.getTimestamp("updated_at").toInstant(), rs.getObject("id", UUID.class)),
+                Timestamp.from(cutoff), Timestamp.from(after.updatedAt()), Timestamp.from(after.updatedAt()), after.id(),
+                batchSize);
+        if (rows.isEmpty()) {
+            return new Batch(0, after);
+        }
+        Object[] ids = rows.stream().map(Cursor::id).toArray();
+        String in = String.join(",", Collections.nCopies(ids.length, "?"));
+        Object[] copyArgs = new Object[ids.length + 1];
+        copyArgs[0] = Timestamp.from(UserEntity.now());
+        System.arraycopy(ids, 0, copyArgs, 1, ids.length);
+        jdbc.update("insert into users_archive (" + COLUMNS + ", archived_at) select " + COLUMNS + ", ? from users"
+                + " where id in (" + in + ")", copyArgs);
+        jdbc.update("delete from users where id in (" + in + ")", ids);
+        for (Cursor row : rows) {
+            events.publishEvent(new UserChangedEvent(row.id(), UserChangedEvent.Kind.ARCHIVED));
+        }
+        return new Batch(rows.size(), rows.get(rows.size() - 1));
+    }
+
+    private record Cursor(Instant updatedAt, UUID id) {
+    }
+
+    private record Batch(int rows, Cursor last) {
+    }
+}
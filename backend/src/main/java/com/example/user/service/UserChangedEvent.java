@@ -0,0 +1,17 @@
+package com.example.user.service;
+
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that changed a user. Listeners that must only see committed changes use
+ * {@code @TransactionalEventListener}.
+ */
+public record UserChangedEvent(UUID id, Kind kind) {
+    public enum Kind {
+        CREATED,
+        DEACTIVATED,
+        DELETED,
+        /** Moved to {@code users_archive} by {@link UserArchiver}. */
+        ARCHIVED
+    }
+}
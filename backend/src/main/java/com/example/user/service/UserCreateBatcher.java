@@ -0,0 +1,285 @@
+package com.example.user.service;
+
+import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserResponse;
+import com.example.user.configuration.ReadYourWritesContext;
+import com.example.user.domain.PasswordPolicy;
+import com.example.user.entity.UserEntity;
+import com.example.user.exceptions.DuplicateRecordException;
+import com.example.user.exceptions.UserException;
+import com.example.user.jfr.UserCreateEvent;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Group commit for {@code POST /api/users}. Callers validate and hash on their own thread, then park on a
+ * future while a single flusher inserts whatever is queued (up to {@code max-batch-size} rows or
+ * {@code max-wait}) with one JDBC batch in one transaction. A caller waits at most {@code tx-timeout} for room in
+ * the queue and {@code max-wait + tx-timeout} for the flusher to take its row; a row still queued then is withdrawn
+ * and rejected with 503, a row already taken waits for its transaction. Creates arriving after shutdown began are
+ * rejected with 503.
+ */
+@Slf4j
+@Component
+// inserts straight into the single users table, so it stays off in sharded mode
+@ConditionalOnExpression("${users.create.batching.enabled:false} and !${users.sharding.enabled:false}")
+public class UserCreateBatcher {
+    private static final String INSERT_SQL = """
+            insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private PasswordPolicy passwordPolicy;
+    @Autowired
+    private PasswordEncoder encoder;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager txManager;
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Value("${users.create.batching.max-batch-size:64}")
+    private int maxBatchSize;
+    @Value("${users.create.batching.max-wait:200us}")
+    private Duration maxWait;
+    @Value("${users.create.batching.queue-capacity:4096}")
+    private int queueCapacity;
+    @Value("${users.create.batching.tx-timeout:5s}")
+    private Duration txTimeout;
+
+    private BlockingQueue<PendingCreate> queue;
+    private TransactionTemplate tx;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        tx = new TransactionTemplate(txManager);
+        tx.setTimeout((int) Math.max(1, txTimeout.toSeconds()));
+        running = true;
+        flusher = new Thread(this::flushLoop, "user-create-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(Duration.ofSeconds(5).toMillis());
+        // whatever the flusher did not take, including rows queued while it was exiting
+        failQueued();
+    }
+
+    @CircuitBreaker(name = "dbOps")
+    public UserResponse create(CreateUserRequest req) {
+        UserCreateEvent event = new UserCreateEvent();
+        event.batched = true;
+        event.begin();
+        try {
+            UserResponse created = doCreate(req);
+            event.outcome = "created";
+            return created;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private UserResponse doCreate(CreateUserRequest req) {
+        final String trimEmail = req.getEmail() == null ? null : req.getEmail().trim();
+
+        passwordPolicy.validate(trimEmail, req.getPassword());
+
+        Instant now = UserEntity.now();
+        UserEntity ent = UserEntity.builder()
+                .id(UUID.randomUUID())
+                .firstName(req.getFirstName())
+                .lastName(req.getLastName())
+                .email(trimEmail.toLowerCase())
+                .passwordHash(encoder.encode(req.getPassword()))
+                .active(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0L)
+                .build();
+
+        PendingCreate pending = new PendingCreate(ent, new CompletableFuture<>());
+        try {
+            if (!running) {
+                throw stopped();
+            }
+            if (!queue.offer(pending, txTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new UserException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Create queue is full, please try again later");
+            }
+            if (!running && queue.remove(pending)) {
+                // stop() began between the check and the offer and may already have drained the queue
+                throw stopped();
+            }
+            UserResponse created;
+            try {
+                created = pending.result().get(maxWait.plus(txTimeout).toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    throw new UserException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Create timed out before it was written, please try again later");
+                }
+                // the flusher took it: answering now could report a failure for a row that then commits, and a
+                // retry would get 409 for its own user. The flusher answers every row it takes.
+                created = pending.result().get();
+            }
+            // the insert ran on the flusher thread, so the routing data source could not see it
+            ReadYourWritesContext.pinToPrimary();
+            return created;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserException("Interrupted while creating user", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new UserException("Create failed", e.getCause());
+        }
+    }
+
+    private static UserException stopped() {
+        return new UserException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Create batcher stopped");
+    }
+
+    private void failQueued() {
+        for (PendingCreate p; (p = queue.poll()) != null; ) {
+            p.result().completeExceptionally(stopped());
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWait.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.result().completeExceptionally(stopped()));
+                break;
+            } catch (RuntimeException e) {
+                log.warn("Create batch of {} failed", batch.size(), e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                // callers of taken rows wait without a deadline, so none may be left unanswered
+                batch.forEach(p -> p.result().completeExceptionally(new UserException("Create batch failed")));
+                batch.clear();
+            }
+        }
+        failQueued();
+    }
+
+    private void flush(List<PendingCreate> batch) {
+        List<PendingCreate> rows = withoutDuplicates(batch);
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), this::bind);
+                rows.forEach(this::publishCreated);
+            });
+            log.debug("Committed {} users in one batch", rows.size());
+            rows.forEach(p -> p.result().complete(UserEntity.toResponse(p.entity())));
+        } catch (DataIntegrityViolationException e) {
+            // an email was taken between the lookup and the insert, find the row(s) one by one
+            rows.forEach(this::insertOne);
+        }
+    }
+
+    private void insertOne(PendingCreate p) {
+        try {
+            tx.executeWithoutResult(status -> {
+                jdbc.update(INSERT_SQL, ps -> bind(ps, p));
+                publishCreated(p);
+            });
+            p.result().complete(UserEntity.toResponse(p.entity()));
+        } catch (DataIntegrityViolationException e) {
+            p.result().completeExceptionally(new DuplicateRecordException("Email already exists"));
+        }
+    }
+
+    // fails rows whose email repeats inside the batch or already exists, the rest go to the insert
+    private List<PendingCreate> withoutDuplicates(List<PendingCreate> batch) {
+        Map<String, PendingCreate> byEmail = new LinkedHashMap<>();
+        for (PendingCreate p : batch) {
+            if (byEmail.putIfAbsent(p.entity().getEmail(), p) != null) {
+                p.result().completeExceptionally(new DuplicateRecordException("Email already exists"));
+            }
+        }
+        String placeholders = String.join(",", Collections.nCopies(byEmail.size(), "?"));
+        // emails are stored trimmed and lower case, so they equal their normalized form
+        List<String> existing = jdbc.queryForList(
+                "select email_normalized from users where email_normalized in (" + placeholders + ")",
+                String.class, byEmail.keySet().toArray());
+        for (String email : existing) {
+            byEmail.remove(email).result().completeExceptionally(new DuplicateRecordException("Email already exists"));
+        }
+        return new ArrayList<>(byEmail.values());
+    }
+
+    private void publishCreated(PendingCreate p) {
+        events.publishEvent(new UserChangedEvent(p.entity().getId(), UserChangedEvent.Kind.CREATED));
+    }
+
+    private void bind(PreparedStatement ps, PendingCreate p) throws SQLException {
+        UserEntity u = p.entity();
+        ps.setObject(1, u.getId());
+        ps.setString(2, u.getFirstName());
+        ps.setString(3, u.getLastName());
+        ps.setString(4, u.getEmail());
+        ps.setString(5, u.getPasswordHash());
+        ps.setBoolean(6, u.isActive());
+        ps.setTimestamp(7, Timestamp.from(u.getCreatedAt()));
+        ps.setTimestamp(8, Timestamp.from(u.getUpdatedAt()));
+        ps.setLong(9, u.getVersion());
+    }
+
+    private record PendingCreate(UserEntity entity, CompletableFuture<UserResponse> result) {
+    }
+}
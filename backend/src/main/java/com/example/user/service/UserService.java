@@ -2,28 +2,49 @@ package com.example.user.service;
 
 import com.example.user.exceptions.DuplicateRecordException;
 import com.example.user.exceptions.NotFoundRecordException;
+import com.example.user.exceptions.RequiredParamsException;
 import com.example.user.exceptions.UserAlreadyInactiveException;
+import com.example.user.exceptions.UserException;
 import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserChange;
+import com.example.user.api.UserChangeType;
+import com.example.user.api.UserChangesResponse;
+import com.example.user.api.UserFilter;
 import com.example.user.api.UserResponse;
 import com.example.user.api.UserStatsResponseDto;
 import com.example.user.domain.PasswordPolicy;
 import com.example.user.entity.UserEntity;
+import com.example.user.entity.UserTombstoneEntity;
+import com.example.user.jfr.UserCreateEvent;
+import com.example.user.jfr.UserDeleteEvent;
+import com.example.user.jfr.UserSearchEvent;
+import com.example.user.jfr.UserStatsEvent;
+import com.example.user.repository.ShardedUserStore;
 import com.example.user.repository.UserRepository;
+import com.example.user.repository.UserTombstoneRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -32,19 +53,176 @@ public class UserService {
     @Autowired
     private UserRepository repo;
     @Autowired
+    private UserTombstoneRepository tombstones;
+    @Autowired
     private PasswordPolicy passwordPolicy;
     @Autowired
     private PasswordEncoder encoder;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired(required = false)
+    private ShardedUserStore shards;
+    @Autowired(required = false)
+    private UserArchiver archiver;
+    // rows younger than this may still be overtaken by a transaction that stamped an older updated_at
+    @Value("${users.changes.safety-lag:2s}")
+    private Duration changesSafetyLag = Duration.ofSeconds(2);
+    // TombstonePruner drops tombstones older than this, so an older token could miss a delete
+    @Value("${users.changes.retention:7d}")
+    private Duration changesRetention = Duration.ofDays(7);
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CHANGES = 1000;
+    // each has an index in that order (V2__workload_indexes.sql, V1 for updated_at), so a page never sorts the table
+    private static final List<String> SORTABLE = List.of("createdAt", "updatedAt");
     @Retry(name = "dbOps")
     @CircuitBreaker(name = "dbOps")
     @Transactional
     public UserResponse create(CreateUserRequest req) {
+        UserCreateEvent event = new UserCreateEvent();
+        event.begin();
+        try {
+            UserResponse created = doCreate(req);
+            event.outcome = "created";
+            log.info("Created user {}", created.getId());
+            return created;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    @Retry(name = "dbOps")
+    @CircuitBreaker(name = "dbOps")
+    @Transactional(readOnly = true)
+    public Page<UserResponse> getList(UserFilter filter, int page, int size, String sort) {
+
+        int safePage = Math.max(0, page);
+        int safeSize = Math.max(1, Math.min(size <= 0 ? 20 : size, MAX_PAGE_SIZE));
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new RequiredParamsException("createdFrom must be before createdTo");
+        }
+        Sort s = sortOf(sort);
+
+        UserSearchEvent event = new UserSearchEvent();
+        event.begin();
+        Pageable pageable = PageRequest.of(safePage, safeSize, s);
+        Page<UserEntity> result = shards != null ? shards.search(filter, pageable) : repo.search(filter, pageable);
+        if (event.shouldCommit()) {
+            event.page = safePage;
+            event.pageSize = safeSize;
+            event.queryLength = filter.getQ() == null ? 0 : filter.getQ().length();
+            event.activeOnly = Boolean.TRUE.equals(filter.getActive());
+            event.filters = filterNames(filter);
+            event.sort = sort;
+            event.rows = result.getNumberOfElements();
+            event.totalRows = result.getTotalElements();
+            event.commit();
+        }
+        log.debug("Listed page {} of users: {} of {}", safePage, result.getNumberOfElements(), result.getTotalElements());
+        return result.map(UserEntity::toResponse);
+    }
+    @Retry(name = "dbOps")
+    @CircuitBreaker(name = "dbOps")
+    @Transactional(readOnly = true)
+    public UserResponse getById(UUID id) {
+        return findById(id)
+                .or(() -> archiver != null ? archiver.findArchived(id) : Optional.empty())
+                .map(UserEntity::toResponse)
+                .orElseThrow(() -> new NotFoundRecordException("User not found"));
+    }
+    @Retry(name = "dbOps")
+    @CircuitBreaker(name = "dbOps")
+    @Transactional
+    public UUID delete(UUID id, boolean soft) {
+        UserDeleteEvent event = new UserDeleteEvent();
+        event.soft = soft;
+        event.begin();
+        try {
+            doDelete(id, soft);
+            event.outcome = "deleted";
+            log.info("Deleted user {} (soft={})", id, soft);
+            return id;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+    @Retry(name = "dbOps")
+    @CircuitBreaker(name = "dbOps")
+    @Transactional(readOnly = true)
+    public UserStatsResponseDto getStats() {
+        UserStatsEvent event = new UserStatsEvent();
+        event.begin();
+        long createdLast24h = countUsersCreatedSince(Instant.now().minus(24, ChronoUnit.HOURS));
+        event.createdLast24h = createdLast24h;
+        event.commit();
+        return UserStatsResponseDto.builder()
+                .createdLast24h(createdLast24h)
+                .build();
+    }
+
+    @Retry(name = "dbOps")
+    @CircuitBreaker(name = "dbOps")
+    @Transactional(readOnly = true)
+    public UserChangesResponse getChanges(String since, int limit) {
+        if (shards != null) {
+            throw new UserException(HttpStatus.NOT_IMPLEMENTED.value(), "Change feed is not available in sharded mode");
+        }
+        ChangeToken from = ChangeToken.decode(since);
+        Instant now = Instant.now();
+        if (!from.equals(ChangeToken.START) && from.changedAt().isBefore(now.minus(changesRetention))) {
+            throw new UserException(HttpStatus.GONE.value(), "Change token is older than the change-feed retention, start over without since");
+        }
+        int safeLimit = Math.max(1, Math.min(limit <= 0 ? 500 : limit, MAX_CHANGES));
+        // tokens carry microseconds; a finer upTo could hand out a token that sorts before rows already returned
+        Instant upTo = now.minus(changesSafetyLag).truncatedTo(ChronoUnit.MICROS);
+        Pageable firstN = PageRequest.of(0, safeLimit + 1);
+
+        List<UserChange> changes = new ArrayList<>();
+        for (UserEntity u : repo.findChangedAfter(from.changedAt(), from.id(), upTo, firstN)) {
+            changes.add(UserChange.builder()
+                    .id(u.getId())
+                    .type(UserChangeType.UPSERT)
+                    .changedAt(u.getUpdatedAt())
+                    .user(UserEntity.toResponse(u))
+                    .build());
+        }
+        for (UserTombstoneEntity t : tombstones.findDeletedAfter(from.changedAt(), from.id(), upTo, firstN)) {
+            changes.add(UserChange.builder()
+                    .id(t.getId())
+                    .type(UserChangeType.DELETED)
+                    .changedAt(t.getDeletedAt())
+                    .build());
+        }
+        changes.sort(Comparator.comparing(c -> new ChangeToken(c.getChangedAt(), c.getId()), ChangeToken.ORDER));
+
+        boolean hasMore = changes.size() > safeLimit;
+        List<UserChange> items = hasMore ? new ArrayList<>(changes.subList(0, safeLimit)) : changes;
+        ChangeToken next;
+        if (hasMore) {
+            next = new ChangeToken(items.get(items.size() - 1).getChangedAt(), items.get(items.size() - 1).getId());
+        } else {
+            // everything before upTo has been returned, so a caught-up consumer's token keeps moving and never expires
+            ChangeToken caughtUp = new ChangeToken(upTo, ChangeToken.START.id());
+            next = ChangeToken.ORDER.compare(caughtUp, from) > 0 ? caughtUp : from;
+        }
+        return UserChangesResponse.builder()
+                .items(items)
+                .nextToken(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private UserResponse doCreate(CreateUserRequest req) {
         final String trimEmail = req.getEmail() == null ? null : req.getEmail().trim();
 
         passwordPolicy.validate(trimEmail, req.getPassword());
 
-        repo.findByEmailIgnoreCase(trimEmail).ifPresent(u -> {
+        findByEmail(trimEmail).ifPresent(u -> {
             throw new DuplicateRecordException("Email already exists");
         });
 
@@ -56,53 +234,84 @@ public class UserService {
                 .active(true)
                 .build();
 
+        UserEntity saved;
         try {
-            return UserEntity.toResponse(repo.save(ent));
+            saved = shards != null ? shards.insert(forShard(ent)) : repo.save(ent);
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateRecordException("Email already exists");
         }
+        events.publishEvent(new UserChangedEvent(saved.getId(), UserChangedEvent.Kind.CREATED));
+        return UserEntity.toResponse(saved);
     }
-    @Retry(name = "dbOps")
-    @CircuitBreaker(name = "dbOps")
-    @Transactional
-    public Page<UserResponse> getList(String q, boolean activeOnly, int page, int size, String sort) {
-
-        int safePage = Math.max(0, page);
-        int safeSize = Math.max(1, Math.min(size <= 0 ? 20 : size, MAX_PAGE_SIZE));
 
-
-        Sort s = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id").descending());
-        if (sort != null && sort.contains(",")) {
-            String[] parts = sort.split(",", 2);
-            var dir = parts.length > 1 && "asc".equalsIgnoreCase(parts[1]) ? Sort.Direction.ASC : Sort.Direction.DESC;
-            s = Sort.by(new Sort.Order(dir, parts[0]));
-        }
-
-        Pageable pageable = PageRequest.of(safePage, safeSize, s);
-        return repo.search(q, activeOnly, pageable).map(UserEntity::toResponse);
-    }
-    @Retry(name = "dbOps")
-    @CircuitBreaker(name = "dbOps")
-    @Transactional
-    public UUID delete(UUID id, boolean soft) {
-        UserEntity ent = repo.findById(id).orElseThrow(() -> new NotFoundRecordException("User not found"));
+    private void doDelete(UUID id, boolean soft) {
+        UserEntity ent = findById(id).orElseThrow(() -> new NotFoundRecordException("User not found"));
         if (soft) {
             if (!ent.isActive()) {
                 throw new UserAlreadyInactiveException("User Already inactive");
             }
             ent.setActive(false);
+            if (shards != null) {
+                shards.deactivate(ent);
+            }
+            events.publishEvent(new UserChangedEvent(id, UserChangedEvent.Kind.DEACTIVATED));
         } else {
-            repo.delete(ent);
+            if (shards != null) {
+                shards.delete(ent);
+            } else {
+                repo.delete(ent);
+                tombstones.save(UserTombstoneEntity.builder().id(id).deletedAt(UserEntity.now()).build());
+            }
+            events.publishEvent(new UserChangedEvent(id, UserChangedEvent.Kind.DELETED));
         }
-        return id;
     }
-    @Retry(name = "dbOps")
-    @CircuitBreaker(name = "dbOps")
-    @Transactional
-    public UserStatsResponseDto getStats() {
-        return UserStatsResponseDto.builder()
-                .createdLast24h(repo.countUsersCreatedSince(Instant.now().minus(24, ChronoUnit.HOURS)))
-                .build();
+
+    private Optional<UserEntity> findById(UUID id) {
+        return shards != null ? shards.findById(id) : repo.findById(id);
+    }
+
+    private Optional<UserEntity> findByEmail(String email) {
+        return shards != null ? shards.findByEmail(email) : repo.findByEmailIgnoreCase(email);
+    }
+
+    private long countUsersCreatedSince(Instant since) {
+        return shards != null ? shards.countUsersCreatedSince(since) : repo.countUsersCreatedSince(since);
+    }
+
+    /** {@code property[,asc|desc]} of {@link #SORTABLE}, ties broken by id in the same direction as the index. */
+    private static Sort sortOf(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id").descending());
+        }
+        String[] parts = sort.split(",", 2);
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property)) {
+            throw new RequiredParamsException("sort must be one of " + String.join(", ", SORTABLE));
+        }
+        var dir = parts.length > 1 && "asc".equalsIgnoreCase(parts[1].trim()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(new Sort.Order(dir, property), new Sort.Order(dir, "id"));
+    }
+
+    private static String filterNames(UserFilter filter) {
+        List<String> names = new ArrayList<>();
+        if (filter.getQ() != null && !filter.getQ().isBlank()) names.add("q");
+        if (filter.getActive() != null) names.add("active");
+        if (filter.getCreatedFrom() != null) names.add("createdFrom");
+        if (filter.getCreatedTo() != null) names.add("createdTo");
+        if (filter.getEmailDomain() != null && !filter.getEmailDomain().isBlank()) names.add("emailDomain");
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isBlank()) names.add("namePrefix");
+        return String.join(",", names);
+    }
+
+    // no persistence context in sharded mode, so do what @PrePersist would have done
+    private static UserEntity forShard(UserEntity ent) {
+        Instant now = UserEntity.now();
+        ent.setId(UUID.randomUUID());
+        ent.setEmail(ent.getEmail().toLowerCase());
+        ent.setCreatedAt(now);
+        ent.setUpdatedAt(now);
+        ent.setVersion(0L);
+        return ent;
     }
 
 }
@@ -0,0 +1,317 @@
+package com.example.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live {@code UserStatsResponseDto} for {@code GET /api/users/stats/stream}. One refresher queries the stats once
+ * per {@code interval}, and again right after a committed create or delete, then serializes the frame once and
+ * hands the same string to every subscriber. Each subscriber has a one-frame mailbox: a newer frame replaces one
+ * the client has not taken yet, so at most one write per subscriber waits for the small sender pool. A subscriber
+ * whose write has not returned after {@code send-timeout} is dropped. Servlet writes block and cannot be
+ * interrupted, so the pool gets an extra thread in place of the stuck one until the connector's write timeout
+ * fails the write; the connection counts against {@code max-connections} until then.
+ */
+@Slf4j
+@Component
+public class UserStatsStream {
+    private static final String EVENT_NAME = "stats";
+    private static final long IDLE = Long.MIN_VALUE;
+    private static final long STALLED = Long.MIN_VALUE + 1;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${users.stats-stream.interval:5s}")
+    private Duration interval = Duration.ofSeconds(5);
+    @Value("${users.stats-stream.heartbeat:15s}")
+    private Duration heartbeat = Duration.ofSeconds(15);
+    @Value("${users.stats-stream.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+    @Value("${users.stats-stream.max-connections:500}")
+    private int maxConnections = 500;
+    @Value("${users.stats-stream.send-timeout:10s}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    @Value("${users.stats-stream.sender-threads:2}")
+    private int senderThreads = 2;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // guards maxConnections; the list size alone would let concurrent subscribes overshoot it
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+    private ScheduledExecutorService refresher;
+    private ThreadPoolExecutor senders;
+    private Counter evicted;
+    private volatile Frame latest;
+    private volatile long lastSentNanos;
+
+    @PostConstruct
+    void start() {
+        refresher = Executors.newSingleThreadScheduledExecutor(daemon("user-stats-stream"));
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemon("user-stats-sender"));
+        refresher.scheduleWithFixedDelay(this::tick, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("users.stats.stream.subscribers", connections, AtomicInteger::get)
+                    .description("Open GET /api/users/stats/stream connections")
+                    .register(registry);
+            evicted = Counter.builder("users.stats.stream.evicted")
+                    .description("Subscribers dropped for falling behind")
+                    .register(registry);
+            Gauge.builder("users.stats.stream.stalled", this, UserStatsStream::stalledWrites)
+                    .description("Writes to dropped subscribers that have not returned yet")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+        senders.shutdownNow();
+        // complete() waits for the emitter's lock, which a write in progress holds
+        subscribers.stream().filter(s -> s.writeStarted.get() == IDLE).forEach(s -> s.emitter.complete());
+        subscribers.clear();
+    }
+
+    /** Opens a subscription, or returns {@code null} when {@code max-connections} are already open. */
+    public SseEmitter subscribe() {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+
+        // the first subscriber after a quiet spell gets a fresh frame, the others the one everybody has
+        Frame current = latest;
+        if (current == null) {
+            requestRefresh();
+        } else {
+            deliver(subscriber, current::event);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return connections.get();
+    }
+
+    int stalledWrites() {
+        return senders.getCorePoolSize() - senderThreads;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            requestRefresh();
+        }
+    }
+
+    /** Queues one refresh; a burst of writes collapses into a single stats query. */
+    void requestRefresh() {
+        if (refreshQueued.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshQueued.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void tick() {
+        if (subscribers.isEmpty()) {
+            latest = null;
+            return;
+        }
+        evictStalled();
+        refresh();
+        if (System.nanoTime() - lastSentNanos >= heartbeat.toNanos()) {
+            broadcast(() -> SseEmitter.event().comment(""));
+        }
+    }
+
+    private void refresh() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(userService.getStats());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Stats stream refresh failed: {}", e.toString());
+            return;
+        }
+        Frame previous = latest;
+        if (previous != null && previous.data.equals(data)) {
+            return;
+        }
+        Frame frame = new Frame(Long.toString(sequence.incrementAndGet()), data);
+        latest = frame;
+        broadcast(frame::event);
+    }
+
+    private void broadcast(Callable<SseEmitter.SseEventBuilder> event) {
+        lastSentNanos = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber, event);
+        }
+    }
+
+    private void deliver(Subscriber subscriber, Callable<SseEmitter.SseEventBuilder> event) {
+        subscriber.mailbox.set(event);
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.mailbox.get() != null && subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Callable<SseEmitter.SseEventBuilder> event;
+            while (!subscriber.removed && (event = subscriber.mailbox.getAndSet(null)) != null) {
+                if (!write(subscriber, event)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // a frame that arrived after the last poll, before the flag was cleared
+        if (!subscriber.removed) {
+            schedule(subscriber);
+        }
+    }
+
+    /** Writes one frame; {@code false} once the subscriber is gone. */
+    private boolean write(Subscriber subscriber, Callable<SseEmitter.SseEventBuilder> event) {
+        long started = System.nanoTime();
+        subscriber.writeStarted.set(started);
+        boolean sent = false;
+        try {
+            subscriber.emitter.send(event.call());
+            sent = true;
+        } catch (IOException | IllegalStateException e) {
+            // client went away; the container reports it through onError/onCompletion as well
+            remove(subscriber);
+        } catch (Exception e) {
+            log.warn("Stats stream send failed: {}", e.toString());
+            remove(subscriber);
+        }
+        if (!subscriber.writeStarted.compareAndSet(started, IDLE)) {
+            // evicted while stuck in this write: give back the connection slot and the extra sender
+            connections.decrementAndGet();
+            resizeSenders(-1);
+            if (sent) {
+                subscriber.emitter.complete();
+            }
+            return false;
+        }
+        return sent;
+    }
+
+    /** Drops subscribers whose write has been running longer than {@code send-timeout}. */
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted.get();
+            if (started != IDLE && started != STALLED && now - started > sendTimeout.toNanos()
+                    && subscriber.writeStarted.compareAndSet(started, STALLED)) {
+                log.debug("Evicting stats stream subscriber after a {} ms write", TimeUnit.NANOSECONDS.toMillis(now - started));
+                if (evicted != null) {
+                    evicted.increment();
+                }
+                subscriber.removed = true;
+                subscribers.remove(subscriber);
+                // the stuck sender cannot be reclaimed before its write fails, so the others get a new one
+                resizeSenders(1);
+            }
+        }
+    }
+
+    // core and max size move together; the order keeps core <= max at every step
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.removed = true;
+        if (subscribers.remove(subscriber)) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // the newest frame not handed to the emitter yet
+        final AtomicReference<Callable<SseEmitter.SseEventBuilder>> mailbox = new AtomicReference<>();
+        // a drain task is queued or running
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // System.nanoTime() when the current write started, IDLE between writes, STALLED once evicted mid-write
+        final AtomicLong writeStarted = new AtomicLong(IDLE);
+        volatile boolean removed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /** A stats payload already rendered as JSON; only the cheap SSE envelope is built per subscriber. */
+    private record Frame(String id, String data) {
+        SseEmitter.SseEventBuilder event() {
+            return SseEmitter.event().id(id).name(EVENT_NAME).data(data);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.user.service;
+
+import com.example.user.repository.ShardedUserStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * The ETag of conditional GETs, read from the database so every writer moves it: other instances, the archiver,
+ * the pruner and anyone writing SQL by hand. It joins the row count and latest {@code updated_at} of {@code users}
+ * (an insert, update or soft delete stamps a new one, a hard delete or an archive batch drops the count) with the
+ * high-water marks of {@code user_tombstones} and {@code users_archive}. Every part is an index lookup or a count.
+ * Read it on the primary before the query it tags, so the body is never older than the tag.
+ */
+@Component
+public class UserWriteEpoch {
+    private static final String WATERMARK = """
+            select (select count(*) from users), (select max(updated_at) from users),
+                   (select count(*) from user_tombstones), (select max(deleted_at) from user_tombstones),
+                   (select max(archived_at) from users_archive)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired(required = false)
+    private ShardedUserStore shards;
+
+    /** Quoted strong ETag for the current state of users; {@code parts} tell the representations of one resource apart. */
+    public String etag(String... parts) {
+        StringBuilder sb = new StringBuilder(64).append('"');
+        jdbc.query(WATERMARK, rs -> {
+            if (shards != null) {
+                // the users table of the default database stays empty, the rows live on the shards
+                ShardedUserStore.Watermark w = shards.watermark();
+                append(sb.append(Long.toString(w.count(), 36)).append('.'), w.lastUpdated());
+            } else {
+                append(sb.append(Long.toString(rs.getLong(1), 36)).append('.'), rs, 2);
+            }
+            append(sb.append('.').append(Long.toString(rs.getLong(3), 36)).append('.'), rs, 4);
+            append(sb.append('.'), rs, 5);
+        });
+        for (String part : parts) {
+            sb.append('-').append(part);
+        }
+        return sb.append('"').toString();
+    }
+
+    private static void append(StringBuilder sb, ResultSet rs, int column) throws SQLException {
+        Timestamp t = rs.getTimestamp(column);
+        append(sb, t == null ? null : t.toInstant());
+    }
+
+    private static void append(StringBuilder sb, Instant t) {
+        sb.append(t == null ? "0" : Long.toString(ChangeToken.micros(t), 36));
+    }
+}
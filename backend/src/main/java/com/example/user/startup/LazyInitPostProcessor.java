@@ -0,0 +1,71 @@
+package com.example.user.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks the beans of {@code users.startup.lazy-packages} lazy, so tooling nobody calls on a fresh pod (springdoc)
+ * is built on its first use instead of during startup. Unlike {@code spring.main.lazy-initialization} the request
+ * path stays eager and the first request does not pay for it. A {@code @Bean} method counts as part of the
+ * package of its configuration class. Beans something eager depends on are still created right away.
+ */
+@Slf4j
+@Component
+public class LazyInitPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+    private List<String> packages = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        // @Value is not applied to bean factory post-processors
+        packages = Binder.get(environment)
+                .bind("users.startup.lazy-packages", Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (packages.isEmpty()) {
+            return;
+        }
+        int marked = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!definition.isLazyInit() && definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE
+                    && matches(declaringClass(beanFactory, definition))) {
+                definition.setLazyInit(true);
+                marked++;
+            }
+        }
+        log.debug("Marked {} beans of {} lazy", marked, packages);
+    }
+
+    private static String declaringClass(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String factoryBean = definition.getFactoryBeanName();
+        if (factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+            return beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+        }
+        return definition.getBeanClassName();
+    }
+
+    private boolean matches(String className) {
+        if (className == null) {
+            return false;
+        }
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
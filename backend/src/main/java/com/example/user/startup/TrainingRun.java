@@ -0,0 +1,74 @@
+package com.example.user.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * CDS training run of the {@code fast-start} build: with {@code users.startup.training-run=true} the app calls each
+ * endpoint once on itself and exits, so the archive written by {@code -XX:ArchiveClassesAtExit} also holds the
+ * classes of the request path (Jackson, validation, Hibernate queries), not only those of the context refresh.
+ * The flag is read at run time on purpose: AOT would freeze a {@code @ConditionalOnProperty} at build time.
+ */
+@Slf4j
+@Component
+public class TrainingRun {
+    @Value("${users.startup.training-run:false}")
+    private boolean enabled;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ApplicationContext context = event.getApplicationContext();
+        int exitCode = 0;
+        try {
+            exercise(((WebServerApplicationContext) context).getWebServer().getPort());
+        } catch (Exception e) {
+            log.error("Training run failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private static void exercise(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String base = "http://localhost:" + port + "/api/users";
+        String email = "training-" + UUID.randomUUID() + "@example.com";
+        String body = """
+                {"firstName":"Training","lastName":"Run","email":"%s","password":"Tr41ning-Run-Pass!"}
+                """.formatted(email);
+
+        send(client, HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 201);
+        send(client, HttpRequest.newBuilder(URI.create(base)), 200);
+        send(client, HttpRequest.newBuilder(URI.create(base + "?q=training&sort=createdAt,desc")), 200);
+        send(client, HttpRequest.newBuilder(URI.create(base + "/stats")), 200);
+        send(client, HttpRequest.newBuilder(URI.create(base + "/" + UUID.randomUUID())), 404);
+    }
+
+    private static void send(HttpClient client, HttpRequest.Builder request, int expected) throws Exception {
+        HttpRequest req = request.build();
+        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != expected) {
+            throw new IllegalStateException(req.method() + " " + req.uri() + " answered " + resp.statusCode()
+                    + ", expected " + expected + ": " + resp.body());
+        }
+        log.info("Training run: {} {} -> {}", req.method(), req.uri().getPath(), resp.statusCode());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.user.startup;
+
+import com.example.user.api.ApiResponseDto;
+import com.example.user.api.PagedResponse;
+import com.example.user.api.UserResponse;
+import com.example.user.domain.PasswordPolicy;
+import com.example.user.entity.UserEntity;
+import com.example.user.exceptions.UserException;
+import com.example.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Optional JIT warm-up ({@code users.warmup.enabled}). Application runners finish before Boot reports
+ * {@code readiness=ACCEPTING_TRAFFIC}, so the hot paths below are compiled before the first real request instead of
+ * running in the interpreter for the first minute of traffic. Loops over {@code PasswordPolicy},
+ * {@code UserEntity.toResponse}, the JSON of a list page and the insert / {@code search} /
+ * {@code countUsersCreatedSince} queries until {@code budget} is spent. The queries of each pass run against
+ * {@code synthetic-rows} fresh rows in their own short transaction that is rolled back, so no row lock or connection
+ * is held across the whole budget. The latency of each path in the first round and over the last {@value #WINDOW} rounds is logged and
+ * exported as {@code users.warmup.latency{path, phase=before|after}}.
+ */
+@Slf4j
+@Component
+public class Warmup implements ApplicationRunner {
+    private static final int WINDOW = 100;
+
+    @Autowired
+    private PasswordPolicy passwordPolicy;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository repo;
+    @Autowired
+    private PlatformTransactionManager txManager;
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${users.warmup.enabled:false}")
+    private boolean enabled;
+    @Value("${users.warmup.budget:10s}")
+    private Duration budget = Duration.ofSeconds(10);
+    @Value("${users.warmup.synthetic-rows:20}")
+    private int syntheticRows = 20;
+
+    // results are folded in here so the JIT cannot drop the work as dead code
+    private volatile long sink;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, PathLatency> latencies = warmUp(start + budget.toNanos());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        latencies.forEach((path, latency) -> {
+            log.info("Warm-up {}: {} rounds, {} us before, {} us after", path, latency.rounds,
+                    latency.before / 1000, latency.after() / 1000);
+            if (registry != null) {
+                register(registry, path, "before", latency, PathLatency::before);
+                register(registry, path, "after", latency, PathLatency::after);
+            }
+        });
+        log.info("Warm-up finished in {} ms", elapsedMs);
+    }
+
+    private Map<String, PathLatency> warmUp(long deadline) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id").descending()));
+        Instant since = Instant.now().minus(24, ChronoUnit.HOURS);
+        Map<String, PathLatency> latencies = new LinkedHashMap<>();
+        List<UserEntity> rows = synthetic();
+        boolean queries = true;
+        do {
+            if (queries) {
+                try {
+                    rows = tx.execute(status -> {
+                        status.setRollbackOnly();
+                        long t0 = System.nanoTime();
+                        List<UserEntity> saved = repo.saveAllAndFlush(synthetic());
+                        record(latencies, "insert", t0);
+                        time(latencies, "search", () -> sink += repo.search("warmup", true, pageable).getNumberOfElements());
+                        time(latencies, "count", () -> sink += repo.countUsersCreatedSince(since));
+                        return saved;
+                    });
+                } catch (DataAccessException e) {
+                    // the warm-up must not keep the application from starting: a database that refuses the write
+                    // (a read-only login, a primary that is down) only costs the query paths
+                    log.warn("Warm-up skips the query paths: {}", e.getMessage());
+                    queries = false;
+                }
+            }
+            List<UserEntity> entities = rows;
+            Page<UserResponse> page = new PageImpl<>(entities.subList(0, Math.min(20, entities.size())), pageable, entities.size())
+                    .map(UserEntity::toResponse);
+            time(latencies, "password-policy", this::validatePasswords);
+            time(latencies, "to-response", () -> entities.forEach(u -> sink += UserEntity.toResponse(u).hashCode()));
+            time(latencies, "json", () -> sink += json(page));
+        } while (System.nanoTime() < deadline);
+        return latencies;
+    }
+
+    private static void time(Map<String, PathLatency> latencies, String path, Runnable work) {
+        long t0 = System.nanoTime();
+        work.run();
+        record(latencies, path, t0);
+    }
+
+    private static void record(Map<String, PathLatency> latencies, String path, long t0) {
+        latencies.computeIfAbsent(path, p -> new PathLatency()).record(System.nanoTime() - t0);
+    }
+
+    private void validatePasswords() {
+        passwordPolicy.validate("warmup@example.org", "Warm-Up-Pass-1");
+        for (String weak : new String[]{"short", "alllowercaseletters", null}) {
+            try {
+                passwordPolicy.validate("warmup@example.com", weak);
+            } catch (UserException e) {
+                sink++;
+            }
+        }
+    }
+
+    private int json(Page<UserResponse> page) {
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponseDto.<PagedResponse<UserResponse>>builder()
+                    .code(200)
+                    .status("OK")
+                    .data(PagedResponse.toPagedResponse(page))
+                    .build()).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<UserEntity> synthetic() {
+        List<UserEntity> rows = new ArrayList<>(syntheticRows);
+        for (int i = 0; i < Math.max(1, syntheticRows); i++) {
+            rows.add(UserEntity.builder()
+                    .firstName("Warmup")
+                    .lastName("User" + i)
+                    .email("warmup-" + UUID.randomUUID() + "@example.org")
+                    .passwordHash("{noop}warmup")
+                    .active(true)
+                    .build());
+        }
+        return rows;
+    }
+
+    private static void register(MeterRegistry registry, String path, String phase, PathLatency latency,
+                                 ToDoubleFunction<PathLatency> value) {
+        TimeGauge.builder("users.warmup.latency", latency, TimeUnit.NANOSECONDS, value)
+                .description("Latency of one warm-up round of a hot path, first round and mean of the last rounds")
+                .tag("path", path)
+                .tag("phase", phase)
+                .register(registry);
+    }
+
+    private static final class PathLatency {
+        private final long[] recent = new long[WINDOW];
+        private long before = -1;
+        private long rounds;
+
+        void record(long nanos) {
+            if (rounds++ == 0) {
+                before = nanos;
+            } else {
+                recent[(int) ((rounds - 2) % WINDOW)] = nanos;
+            }
+        }
+
+        double before() {
+            return before;
+        }
+
+        /** Mean of the last rounds, the cold first one left out unless it is the only one. */
+        long after() {
+            int n = (int) Math.min(rounds - 1, WINDOW);
+            if (n <= 0) {
+                return before;
+            }
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += recent[i];
+            }
+            return sum / n;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.user.tracing;
+
+/**
+ * One timed stage of a request. Mutable and owned by the thread that started it until {@link Tracer#end}
+ * hands it to the exporter; after that it is only read.
+ */
+public final class Span {
+    public static final int KIND_INTERNAL = 1;
+    public static final int KIND_SERVER = 2;
+    public static final int KIND_CLIENT = 3;
+    private static final int MAX_ATTRIBUTES = 4;
+
+    final long traceIdHigh;
+    final long traceIdLow;
+    final long spanId;
+    final long parentSpanId;
+    final boolean sampled;
+    final int kind;
+    final long startEpochNanos;
+    final Span parent;
+    String name;
+    long endEpochNanos;
+    String errorType;
+    final String[] attributes = new String[MAX_ATTRIBUTES * 2];
+    int attributeCount;
+
+    Span(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, boolean sampled, int kind,
+         String name, long startEpochNanos, Span parent) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.sampled = sampled;
+        this.kind = kind;
+        this.name = name;
+        this.startEpochNanos = startEpochNanos;
+        this.parent = parent;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /** Extra attributes past the fixed capacity are dropped. */
+    public void setAttribute(String key, String value) {
+        if (attributeCount < MAX_ATTRIBUTES) {
+            attributes[attributeCount * 2] = key;
+            attributes[attributeCount * 2 + 1] = value;
+            attributeCount++;
+        }
+    }
+
+    public String traceId() {
+        return hex(traceIdHigh) + hex(traceIdLow);
+    }
+
+    /** W3C {@code traceparent} value for this span. */
+    public String traceparent() {
+        return "00-" + traceId() + "-" + hex(spanId) + (sampled ? "-01" : "-00");
+    }
+
+    static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.user.tracing;
+
+import com.example.user.utils.RingBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes finished spans to a local file, one OTLP/JSON {@code ExportTraceServiceRequest} per line (the
+ * layout of the OpenTelemetry file exporter), so a collector can replay it later. Request threads only put
+ * the span into a {@link RingBuffer}; when it is full the span is dropped and counted.
+ */
+@Slf4j
+public class SpanExporter implements AutoCloseable {
+    private static final int MAX_BATCH = 512;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final RingBuffer<Span> buffer;
+    private final Path file;
+    private final long flushIntervalNanos;
+    private final String serviceName;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong exported = new AtomicLong();
+    private final StringBuilder line = new StringBuilder(16 * 1024);
+    private final Thread writer;
+    private volatile boolean running = true;
+    private int batchSize;
+
+    public SpanExporter(Path file, int bufferSize, Duration flushInterval, String serviceName) {
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.file = file;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.serviceName = serviceName;
+        this.writer = new Thread(this::writeLoop, "span-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void export(Span span) {
+        if (!buffer.offer(span)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getExported() {
+        return exported.get();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(Duration.ofSeconds(5).toMillis());
+    }
+
+    private void writeLoop() {
+        try (Writer out = open()) {
+            while (running || !buffer.isEmpty()) {
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                    continue;
+                }
+                beginBatch();
+                int drained = buffer.drain(this::appendSpan, MAX_BATCH);
+                endBatch();
+                try {
+                    out.append(line);
+                    out.flush();
+                    exported.addAndGet(drained);
+                } catch (IOException e) {
+                    dropped.addAndGet(drained);
+                    log.warn("Could not write {} spans to {}", drained, file, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Span export to {} stopped", file, e);
+        }
+    }
+
+    private Writer open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void beginBatch() {
+        line.setLength(0);
+        batchSize = 0;
+        line.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        appendAttribute("service.name", serviceName);
+        line.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"").append(serviceName).append("\"},\"spans\":[");
+    }
+
+    private void endBatch() {
+        line.append("]}]}]}\n");
+    }
+
+    private void appendSpan(Span span) {
+        if (batchSize++ > 0) {
+            line.append(',');
+        }
+        line.append("{\"traceId\":\"");
+        appendHex(span.traceIdHigh);
+        appendHex(span.traceIdLow);
+        line.append("\",\"spanId\":\"");
+        appendHex(span.spanId);
+        line.append('"');
+        if (span.parentSpanId != 0) {
+            line.append(",\"parentSpanId\":\"");
+            appendHex(span.parentSpanId);
+            line.append('"');
+        }
+        line.append(",\"name\":");
+        appendString(span.name);
+        line.append(",\"kind\":").append(span.kind)
+                .append(",\"startTimeUnixNano\":\"").append(span.startEpochNanos)
+                .append("\",\"endTimeUnixNano\":\"").append(span.endEpochNanos)
+                .append("\",\"attributes\":[");
+        for (int i = 0; i < span.attributeCount; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendAttribute(span.attributes[i * 2], span.attributes[i * 2 + 1]);
+        }
+        line.append(']');
+        if (span.errorType != null) {
+            line.append(",\"status\":{\"code\":2,\"message\":");
+            appendString(span.errorType);
+            line.append('}');
+        }
+        line.append('}');
+    }
+
+    private void appendAttribute(String key, String value) {
+        line.append("{\"key\":");
+        appendString(key);
+        line.append(",\"value\":{\"stringValue\":");
+        appendString(value);
+        line.append("}}");
+    }
+
+    private void appendHex(long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            line.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
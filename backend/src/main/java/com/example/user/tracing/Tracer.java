@@ -0,0 +1,110 @@
+package com.example.user.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts and ends spans on the current thread. A request gets a root span from {@link TracingFilter},
+ * continuing the caller's trace when a {@code traceparent} header came in; the sampling decision is made
+ * once, at the root. An unsampled request gets no span at all, so it allocates nothing here, and its children
+ * are never created.
+ */
+public class Tracer {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final SpanExporter exporter;
+    private final double sampleRate;
+    private final long epochOffsetNanos;
+
+    public Tracer(SpanExporter exporter, double sampleRate) {
+        this.exporter = exporter;
+        this.sampleRate = sampleRate;
+        this.epochOffsetNanos = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+    }
+
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /** Root span of a request, or {@code null} when the request is not sampled. */
+    public Span startRequest(String name, String traceparent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long traceHigh;
+        long traceLow;
+        long parentId = 0;
+        if (isValidTraceparent(traceparent)) {
+            if ((Character.digit(traceparent.charAt(54), 16) & 1) == 0) {
+                return null;
+            }
+            traceHigh = Long.parseUnsignedLong(traceparent, 3, 19, 16);
+            traceLow = Long.parseUnsignedLong(traceparent, 19, 35, 16);
+            parentId = Long.parseUnsignedLong(traceparent, 36, 52, 16);
+        } else {
+            if (random.nextDouble() >= sampleRate) {
+                return null;
+            }
+            traceHigh = random.nextLong();
+            traceLow = random.nextLong();
+        }
+        Span span = new Span(traceHigh, traceLow, nonZeroId(random), parentId, true, Span.KIND_SERVER,
+                name, now(), null);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /** Child of the current span, or {@code null} when there is no sampled trace on this thread. */
+    public Span startSpan(String name, int kind) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.sampled) {
+            return null;
+        }
+        Span span = new Span(parent.traceIdHigh, parent.traceIdLow, nonZeroId(ThreadLocalRandom.current()),
+                parent.spanId, true, kind, name, now(), parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    public void end(Span span, Throwable error) {
+        if (span == null) {
+            return;
+        }
+        span.endEpochNanos = now();
+        if (error != null) {
+            span.errorType = error.getClass().getName();
+        }
+        if (span.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span.parent);
+        }
+        if (span.sampled) {
+            exporter.export(span);
+        }
+    }
+
+    private long now() {
+        return epochOffsetNanos + System.nanoTime();
+    }
+
+    private static long nonZeroId(ThreadLocalRandom random) {
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    // 00-<32 hex trace id>-<16 hex parent id>-<2 hex flags>
+    static boolean isValidTraceparent(String header) {
+        if (header == null || header.length() != 55 || !header.startsWith("00-")
+                || header.charAt(35) != '-' || header.charAt(52) != '-') {
+            return false;
+        }
+        for (int i = 3; i < 55; i++) {
+            if (i != 35 && i != 52 && Character.digit(header.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return !header.startsWith("00000000000000000000000000000000", 3)
+                && !header.startsWith("0000000000000000", 36);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.user.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Child spans for the stages of a request: controller, service, repository (as client spans, they are
+ * the database round trips) and the password encoder. Nothing is created when the request is unsampled.
+ */
+@Aspect
+public class TracingAspect {
+    private final Tracer tracer;
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * com.example.user.controller.UserController.*(..))")
+    public Object controller(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "UserController", Span.KIND_INTERNAL);
+    }
+
+    @Around("execution(public * com.example.user.service.*.*(..))")
+    public Object service(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, null, Span.KIND_INTERNAL);
+    }
+
+    @Around("execution(* com.example.user.repository.UserRepository.*(..))")
+    public Object userRepository(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "UserRepository", Span.KIND_CLIENT);
+    }
+
+    @Around("execution(* com.example.user.repository.UserTombstoneRepository.*(..))")
+    public Object tombstoneRepository(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "UserTombstoneRepository", Span.KIND_CLIENT);
+    }
+
+    @Around("execution(* org.springframework.security.crypto.password.PasswordEncoder.*(..)) && bean(passwordEncoder)")
+    public Object passwordEncoder(ProceedingJoinPoint pjp) throws Throwable {
+        return trace(pjp, "PasswordEncoder", Span.KIND_INTERNAL);
+    }
+
+    private Object trace(ProceedingJoinPoint pjp, String owner, int kind) throws Throwable {
+        Span current = Tracer.current();
+        if (current == null || !current.isSampled()) {
+            return pjp.proceed();
+        }
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        String name = names.computeIfAbsent(method,
+                m -> (owner != null ? owner : m.getDeclaringClass().getSimpleName()) + "." + m.getName());
+        Span span = tracer.startSpan(name, kind);
+        Throwable error = null;
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            error = t;
+            throw t;
+        } finally {
+            tracer.end(span, error);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.user.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Root span of every sampled request; answers with the {@code traceparent} it ran under and puts the trace id in the
+ * MDC. Unsampled requests pass straight through: an incoming unsampled {@code traceparent} is echoed unchanged,
+ * and nothing is allocated for them.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+    static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String incoming = request.getHeader(TRACEPARENT);
+        Span span = tracer.startRequest(request.getMethod(), incoming);
+        if (span == null) {
+            if (Tracer.isValidTraceparent(incoming)) {
+                response.setHeader(TRACEPARENT, incoming);
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(TRACEPARENT, span.traceparent());
+        MDC.put("traceId", span.traceId());
+        Throwable error = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            MDC.remove("traceId");
+            // the route template keeps span names bounded, the raw path would not
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            span.setName(request.getMethod() + " " + (route != null ? route : "unmatched"));
+            span.setAttribute("http.method", request.getMethod());
+            span.setAttribute("http.target", request.getRequestURI());
+            span.setAttribute("http.status_code", Integer.toString(response.getStatus()));
+            tracer.end(span, error);
+        }
+    }
+}
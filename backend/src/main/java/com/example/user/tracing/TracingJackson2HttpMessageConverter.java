@@ -0,0 +1,34 @@
+package com.example.user.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/** Jackson converter with a "serialize" span around writing the response body, which runs after the controller returned. */
+public class TracingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final Tracer tracer;
+
+    public TracingJackson2HttpMessageConverter(ObjectMapper objectMapper, Tracer tracer) {
+        super(objectMapper);
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Span span = tracer.startSpan("serialize", Span.KIND_INTERNAL);
+        Throwable error = null;
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            tracer.end(span, error);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.user.utils;
 import com.example.user.api.ApiResponseDto;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 
 public class ResponseBuilder {
@@ -13,6 +14,16 @@ public class ResponseBuilder {
         );
     }
 
+    public static <T> ResponseEntity<ApiResponseDto<T>> success(T data, CacheControl cacheControl) {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(
+                ApiResponseDto.<T>builder()
+                        .code(200)
+                        .status("OK")
+                        .data(data)
+                        .build()
+        );
+    }
+
     public static <T> ResponseEntity<ApiResponseDto<T>> created(T data) {
         return ResponseEntity.status(201).body(
                 ApiResponseDto.<T>builder()
@@ -0,0 +1,75 @@
+package com.example.user.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer (Vyukov's bounded MPMC design, drained by a
+ * single thread). {@link #offer} never blocks: when the buffer is full it returns {@code false} and the
+ * caller decides what dropping means. Slots are preallocated, so a hand-off allocates nothing.
+ */
+public final class RingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public boolean offer(T item) {
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) pos & mask;
+            long diff = sequences.get(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.lazySet(slot, item);
+                    sequences.set(slot, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // another producer took the slot, retry with the new tail
+        }
+    }
+
+    /** Hands up to {@code max} items to {@code sink}; only ever call this from the consumer thread. */
+    public int drain(Consumer<? super T> sink, int max) {
+        int drained = 0;
+        long pos = head.get();
+        while (drained < max) {
+            int slot = (int) pos & mask;
+            if (sequences.get(slot) != pos + 1) {
+                break;
+            }
+            T item = items.get(slot);
+            items.lazySet(slot, null);
+            sequences.set(slot, pos + mask + 1);
+            pos++;
+            head.lazySet(pos);
+            sink.accept(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        return sequences.get((int) head.get() & mask) != head.get() + 1;
+    }
+}
@@ -16,3 +16,13 @@ create index if not exists idx_users_created_at on users(created_at);--I doing f
 create index if not exists idx_users_is_active  on users(is_active);
 --in real system I will add the index:
 --create index if not exists idx_users_created_at_id on users (created_at desc, id desc);
+
+-- change feed: keyset on (updated_at, id) and tombstones for hard deletes
+create index if not exists idx_users_updated_at_id on users(updated_at, id);
+
+create table if not exists user_tombstones (
+  id          uuid primary key,
+  deleted_at  timestamp not null
+);
+
+create index if not exists idx_user_tombstones_deleted_at_id on user_tombstones(deleted_at, id);
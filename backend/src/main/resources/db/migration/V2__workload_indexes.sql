@@ -0,0 +1,14 @@
+-- Indexes matched to the query shapes of UserRepository; QueryPlanTest runs EXPLAIN on each of them.
+
+-- list pages (order by created_at desc, id desc) and stats (created_at >= ?); the single-column index goes
+create index if not exists idx_users_created_at_id on users(created_at desc, id desc);
+drop index if exists idx_users_created_at;
+
+-- activeOnly lists: equality on is_active, then the same order. is_active alone matches most rows and was never picked
+create index if not exists idx_users_active_created_at_id on users(is_active, created_at desc, id desc);
+drop index if exists idx_users_is_active;
+
+-- email lookups and uniqueness on the normalized form, so Foo@x.com and foo@x.com cannot both exist
+alter table users add column if not exists email_normalized varchar(320) generated always as (lower(trim(email)));
+create unique index if not exists uq_users_email_normalized on users(email_normalized);
+drop index if exists uq_users_email;
@@ -0,0 +1,11 @@
+-- Columns the GET /api/users filters compare directly, so each filter is an index lookup (see UserSpecifications).
+
+-- emailDomain: equality on the part after '@', then the default list order
+alter table users add column if not exists email_domain varchar(320)
+    generated always as (substring(lower(trim(email)) from locate('@', trim(email)) + 1));
+create index if not exists idx_users_email_domain_created_at_id on users(email_domain, created_at desc, id desc);
+
+-- namePrefix: range scan on "first last" in lower case
+alter table users add column if not exists name_normalized varchar(201)
+    generated always as (lower(first_name || ' ' || last_name));
+create index if not exists idx_users_name_normalized on users(name_normalized);
@@ -0,0 +1,19 @@
+-- Users inactive for longer than users.archive.retention, moved out of users by UserArchiver.
+-- No unique email: an archived address may be registered again.
+create table if not exists users_archive (
+  id             uuid primary key,
+  first_name     varchar(100) not null,
+  last_name      varchar(100) not null,
+  email          varchar(320) not null,
+  password_hash  varchar(100) not null,
+  is_active      boolean not null,
+  created_at     timestamp not null,
+  updated_at     timestamp not null,
+  version        bigint not null,
+  archived_at    timestamp not null
+);
+
+create index if not exists idx_users_archive_archived_at on users_archive(archived_at);
+
+-- the archiver's keyset: inactive rows in (updated_at, id) order, without reading the active ones
+create index if not exists idx_users_active_updated_at_id on users(is_active, updated_at, id);
@@ -0,0 +1,5 @@
+create table if not exists user_email_directory (
+  email    varchar(320) primary key,
+  user_id  uuid not null,
+  shard    int not null
+);
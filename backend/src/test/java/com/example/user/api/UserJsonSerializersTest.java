@@ -0,0 +1,86 @@
+package com.example.user.api;
+
+import com.example.user.configuration.BinaryContentConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserJsonSerializersTest {
+    private final ObjectMapper reflective = mapper();
+    private final ObjectMapper streaming = mapper().registerModule(new SimpleModule()
+            .addSerializer(new UserJsonSerializers.UserResponseSerializer())
+            .addSerializer(new UserJsonSerializers.PageMetaSerializer()));
+
+    @Test
+    @DisplayName("pagedResponseByteCompatible")
+    void pagedResponseByteCompatibleTest() throws Exception {
+        List<UserResponse> items = new ArrayList<>();
+        Instant[] instants = {
+                Instant.parse("2024-02-29T23:59:59Z"),
+                Instant.parse("1970-01-01T00:00:00.120Z"),
+                Instant.parse("1969-12-31T23:59:59.000001Z"),
+                Instant.parse("2000-03-01T12:00:00.123456789Z"),
+                Instant.parse("9999-12-31T23:59:59.999Z"),
+                Instant.parse("+10000-01-01T00:00:00Z"),
+                Instant.parse("0000-01-01T00:00:00Z")};
+        for (Instant instant : instants) {
+            items.add(user(instant, "\"quoted\" \\ é"));
+        }
+        for (int i = 0; i < 500; i++) {
+            long seconds = ThreadLocalRandom.current().nextLong(-62_000_000_000L, 253_402_300_799L);
+            items.add(user(Instant.ofEpochSecond(seconds, ThreadLocalRandom.current().nextInt(1_000_000_000)), "n" + i));
+        }
+        items.add(new UserResponse(null, null, null, null, false, null, null));
+        ApiResponseDto<PagedResponse<UserResponse>> body = ApiResponseDto.<PagedResponse<UserResponse>>builder()
+                .code(200)
+                .status("OK")
+                .data(PagedResponse.toPagedResponse(new PageImpl<>(items, PageRequest.of(0, items.size()), 10_000)))
+                .build();
+
+        assertThat(streaming.writeValueAsBytes(body)).isEqualTo(reflective.writeValueAsBytes(body));
+    }
+
+    @Test
+    @DisplayName("cborMatchesBeanSerializer")
+    void cborMatchesBeanSerializerTest() throws Exception {
+        ObjectMapper reflectiveCbor = BinaryContentConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), new CBORFactory());
+        ObjectMapper streamingCbor = BinaryContentConfig.binaryMapper(Jackson2ObjectMapperBuilder.json()
+                .serializers(new UserJsonSerializers.UserResponseSerializer(), new UserJsonSerializers.PageMetaSerializer()),
+                new CBORFactory());
+        UserResponse user = user(Instant.parse("2024-05-01T10:15:30.123456Z"), "Israel");
+
+        assertThat(streamingCbor.writeValueAsBytes(user)).isEqualTo(reflectiveCbor.writeValueAsBytes(user));
+    }
+
+    private static UserResponse user(Instant instant, String name) {
+        return UserResponse.builder()
+                .id(UUID.randomUUID())
+                .firstName(name)
+                .lastName("Israeli")
+                .email("user@ex.com")
+                .active(true)
+                .createdAt(instant)
+                .updatedAt(instant.plusNanos(1_000))
+                .build();
+    }
+
+    private static ObjectMapper mapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.user.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("appendAndRead")
+    void appendAndReadTest() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        long micros = AuditRecord.epochMicros(Instant.parse("2026-01-02T03:04:05.123456Z"));
+        try (AuditLogWriter writer = new AuditLogWriter(dir, 4)) {
+            // 10 records over three segments
+            for (int i = 0; i < 5; i++) {
+                assertThat(writer.append(micros + i, a, AuditRecord.Action.CREATED)).isEqualTo(2L * i + 1);
+                writer.append(micros + i, b, i == 4 ? AuditRecord.Action.HARD_DELETED : AuditRecord.Action.CREATED);
+            }
+        }
+        assertThat(AuditSegments.list(dir)).extracting(p -> p.getFileName().toString())
+                .containsExactly("audit-00000000000000000001.log", "audit-00000000000000000005.log", "audit-00000000000000000009.log");
+
+        AuditLogReader reader = new AuditLogReader(dir);
+        List<AuditRecord> all = reader.read(1, 100);
+        assertThat(all).extracting(AuditRecord::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(all.get(0).time()).isEqualTo(Instant.parse("2026-01-02T03:04:05.123456Z"));
+        assertThat(all.get(9)).isEqualTo(new AuditRecord(10, all.get(8).time(), b, AuditRecord.Action.HARD_DELETED));
+        assertThat(reader.read(6, 3)).extracting(AuditRecord::sequence).containsExactly(6L, 7L, 8L);
+        assertThat(reader.read(11, 3)).isEmpty();
+        assertThat(reader.history(a)).hasSize(5).allMatch(r -> r.userId().equals(a) && r.sequence() % 2 == 1);
+    }
+
+    @Test
+    @DisplayName("resume")
+    void resumeTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        try (AuditLogWriter writer = new AuditLogWriter(dir, 4)) {
+            for (int i = 0; i < 6; i++) {
+                writer.append(i, id, AuditRecord.Action.CREATED);
+            }
+        }
+        try (AuditLogWriter writer = new AuditLogWriter(dir, 4)) {
+            assertThat(writer.nextSequence()).isEqualTo(7);
+            writer.append(6, id, AuditRecord.Action.ARCHIVED);
+        }
+        assertThat(new AuditLogReader(dir).read(1, 100)).extracting(AuditRecord::sequence)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    @DisplayName("tornRecord")
+    void tornRecordTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        try (AuditLogWriter writer = new AuditLogWriter(dir, 8)) {
+            for (int i = 0; i < 3; i++) {
+                writer.append(i, id, AuditRecord.Action.CREATED);
+            }
+        }
+        // a crash in the middle of record 3: its user id was written, its checksum not
+        try (FileChannel ch = FileChannel.open(AuditSegments.path(dir, 1), StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), 2L * AuditRecord.SIZE + 20);
+        }
+        assertThat(new AuditLogReader(dir).read(1, 100)).extracting(AuditRecord::sequence).containsExactly(1L, 2L);
+
+        try (AuditLogWriter writer = new AuditLogWriter(dir, 8)) {
+            assertThat(writer.append(9, id, AuditRecord.Action.SOFT_DELETED)).isEqualTo(3);
+        }
+        assertThat(new AuditLogReader(dir).read(3, 1)).singleElement()
+                .extracting(AuditRecord::action).isEqualTo(AuditRecord.Action.SOFT_DELETED);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.user.audit;
+
+import com.example.user.api.CreateUserRequest;
+import com.example.user.service.UserChangedEvent;
+import com.example.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "users.audit.enabled=true",
+        "users.audit.flush-interval=10ms"
+})
+@ActiveProfiles("test")
+public class UserAuditTrailTest {
+    static Path dir;
+
+    @Autowired
+    UserAuditTrail auditTrail;
+    @Autowired
+    UserService userService;
+    @Autowired
+    MeterRegistry registry;
+
+    @DynamicPropertySource
+    static void auditDir(DynamicPropertyRegistry registry) throws IOException {
+        dir = Files.createTempDirectory("audit");
+        registry.add("users.audit.dir", dir::toString);
+    }
+
+    @Test
+    @DisplayName("createAndDelete")
+    void createAndDeleteTest() throws Exception {
+        UUID id = userService.create(CreateUserRequest.builder()
+                .firstName("Audit")
+                .lastName("Trail")
+                .email("audit.trail@audit.local")
+                .password("Secret1!")
+                .build()).getId();
+        userService.delete(id, true);
+        userService.delete(id, false);
+
+        awaitDrained();
+        assertThat(new AuditLogReader(dir).history(id)).extracting(AuditRecord::action).containsExactly(
+                AuditRecord.Action.CREATED, AuditRecord.Action.SOFT_DELETED, AuditRecord.Action.HARD_DELETED);
+    }
+
+    @Test
+    @DisplayName("failedAppendIsNotCounted")
+    void failedAppendIsNotCountedTest() throws Exception {
+        awaitDrained();
+        double appended = registry.get("users.audit.appended").functionCounter().count();
+        double failures = registry.get("users.audit.failures").counter().count();
+        long next = auditTrail.nextSequence();
+
+        // no user id: the writer cannot append it
+        auditTrail.onUserChanged(new UserChangedEvent(null, UserChangedEvent.Kind.CREATED));
+        awaitDrained();
+
+        assertThat(auditTrail.backlog()).isZero();
+        assertThat(registry.get("users.audit.failures").counter().count()).isEqualTo(failures + 1);
+        assertThat(registry.get("users.audit.appended").functionCounter().count()).isEqualTo(appended);
+        assertThat(auditTrail.nextSequence()).isEqualTo(next);
+    }
+
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (auditTrail.backlog() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.user.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,queryprofiling,jfr",
+        "users.actuator.username=ops",
+        "users.actuator.password=s3cret-ops"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ActuatorSecurityTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    @DisplayName("writeNeedsCredentials")
+    void writeNeedsCredentialsTest() throws Exception {
+        String body = "{\"sampleRate\": 0.5}";
+        mvc.perform(post("/actuator/queryprofiling").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(post("/actuator/queryprofiling").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .with(httpBasic("ops", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/actuator/queryprofiling"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sampleRate").value(0.01));
+
+        mvc.perform(post("/actuator/queryprofiling").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .with(httpBasic("ops", "s3cret-ops")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sampleRate").value(0.5));
+    }
+
+    @Test
+    @DisplayName("jfrNeedsCredentials")
+    void jfrNeedsCredentialsTest() throws Exception {
+        mvc.perform(post("/actuator/jfr").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(delete("/actuator/jfr")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/actuator/jfr")).andExpect(status().isOk()).andExpect(jsonPath("$.state").value("NONE"));
+    }
+
+    @Test
+    @DisplayName("apiStaysOpen")
+    void apiStaysOpenTest() throws Exception {
+        mvc.perform(get("/api/users/stats")).andExpect(status().isOk());
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+}
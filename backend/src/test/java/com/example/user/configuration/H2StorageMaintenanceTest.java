@@ -0,0 +1,65 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class H2StorageMaintenanceTest {
+    @TempDir
+    Path tmp;
+
+    @Test
+    @DisplayName("snapshotAndRestore")
+    void snapshotAndRestoreTest() throws Exception {
+        StorageProperties properties = new StorageProperties();
+        properties.setDir(tmp.resolve("db"));
+        properties.setSnapshotFile(tmp.resolve("snapshot").resolve("usersdb.zip"));
+
+        SingleConnectionDataSource ds = dataSource(properties);
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        try (H2StorageMaintenance maintenance = new H2StorageMaintenance(jdbc, properties, new SimpleMeterRegistry())) {
+            jdbc.execute("create table users (id int primary key, email varchar(100))");
+            jdbc.update("insert into users values (1, 'snapshot@example.com')");
+            maintenance.checkpoint();
+            maintenance.snapshot();
+        }
+        ds.destroy();
+        assertThat(properties.getSnapshotFile()).exists();
+        assertThat(H2StorageMaintenance.restoreIfMissing(properties)).as("database file still there").isFalse();
+
+        Files.delete(properties.databaseFile());
+        assertThat(H2StorageMaintenance.restoreIfMissing(properties)).isTrue();
+
+        SingleConnectionDataSource restored = dataSource(properties);
+        try {
+            assertThat(new JdbcTemplate(restored).queryForObject("select email from users where id = 1", String.class))
+                    .isEqualTo("snapshot@example.com");
+        } finally {
+            restored.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("noSnapshotNoRestore")
+    void noSnapshotNoRestoreTest() {
+        StorageProperties properties = new StorageProperties();
+        properties.setDir(tmp.resolve("db"));
+        properties.setSnapshotFile(tmp.resolve("missing.zip"));
+
+        assertThat(H2StorageMaintenance.restoreIfMissing(properties)).isFalse();
+        assertThat(properties.getDir()).doesNotExist();
+    }
+
+    private static SingleConnectionDataSource dataSource(StorageProperties properties) {
+        return new SingleConnectionDataSource("jdbc:h2:file:" + properties.getDir().resolve(properties.getName())
+                + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "", true);
+    }
+}
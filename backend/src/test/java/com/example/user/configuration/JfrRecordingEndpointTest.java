@@ -0,0 +1,75 @@
+package com.example.user.configuration;
+
+import com.example.user.jfr.UserSearchEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrRecordingEndpointTest {
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(Duration.ofMinutes(1), DataSize.ofMegabytes(10));
+
+    @Test
+    @DisplayName("recordingContainsUserEvents")
+    void recordingContainsUserEventsTest() throws Exception {
+        assertThat(endpoint.start(Duration.ofHours(1), null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.status()).containsEntry("state", "RUNNING").containsEntry("duration", "PT1M");
+        assertThat(endpoint.start(null, null).getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+
+        UserSearchEvent event = new UserSearchEvent();
+        event.begin();
+        event.pageSize = 20;
+        event.queryLength = 3;
+        event.rows = 7;
+        event.commit();
+
+        WebEndpointResponse<Resource> response = endpoint.stop();
+        assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path copy = Files.createTempFile("jfr-test-", ".jfr");
+        try {
+            try (InputStream in = response.getBody().getInputStream()) {
+                Files.copy(in, copy, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            }
+            assertThat(response.getBody().exists()).isFalse();
+
+            List<RecordedEvent> searches = RecordingFile.readAllEvents(copy).stream()
+                    .filter(e -> e.getEventType().getName().equals("com.example.user.Search"))
+                    .toList();
+            assertThat(searches).hasSize(1);
+            assertThat(searches.get(0).getInt("pageSize")).isEqualTo(20);
+            assertThat(searches.get(0).getInt("rows")).isEqualTo(7);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+        assertThat(endpoint.status()).containsEntry("state", "NONE");
+    }
+
+    @Test
+    @DisplayName("onlyBuiltInSettings")
+    void onlyBuiltInSettingsTest() throws Exception {
+        assertThat(endpoint.start(null, "/etc/passwd").getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.start(null, "../profile").getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.status()).containsEntry("state", "NONE");
+
+        assertThat(endpoint.start(null, "default").getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        endpoint.stop().getBody().getInputStream().close();
+    }
+
+    @Test
+    @DisplayName("stopWithoutRecording")
+    void stopWithoutRecordingTest() throws Exception {
+        assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.user.configuration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@WithMockUser
+public class MetricsConfigTest {
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    @DisplayName("prometheusScrape")
+    void prometheusScrapeTest() throws Exception {
+        mvc.perform(post("/api/users")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"Israel","lastName":"Israeli","email":"metrics@ex.com","password":"Secret1!"}
+                                """))
+                .andExpect(status().isCreated());
+        mvc.perform(get("/api/users")).andExpect(status().isOk());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/users\"")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("users_password_encode_seconds_bucket")
+                .contains("hikaricp_connections_active")
+                .contains("resilience4j_circuitbreaker_calls")
+                .contains("resilience4j_retry_calls");
+    }
+}
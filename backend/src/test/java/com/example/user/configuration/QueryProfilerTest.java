@@ -0,0 +1,83 @@
+package com.example.user.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryProfilerTest {
+    private QueryProfilingProperties properties;
+    private SimpleMeterRegistry registry;
+    private QueryProfiler profiler;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query_profiler;DB_CLOSE_DELAY=-1");
+        properties = new QueryProfilingProperties();
+        properties.setEnabled(true);
+        registry = new SimpleMeterRegistry();
+        profiler = new QueryProfiler(properties, registry);
+        dataSource = profiler.wrap(h2);
+        try (Connection con = h2.getConnection(); Statement st = con.createStatement()) {
+            st.execute("create table if not exists t (id int primary key, name varchar(20))");
+            st.execute("delete from t");
+        }
+    }
+
+    @Test
+    @DisplayName("slowQueryCounted")
+    void slowQueryCountedTest() throws Exception {
+        properties.setSlowThreshold(Duration.ZERO);
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("insert into t (id, name) values (?, ?)")) {
+            ps.setInt(1, 1);
+            ps.setString(2, "secret");
+            ps.executeUpdate();
+        }
+        assertThat(registry.counter("users.query.slow").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("requestOverBudgetFlagged")
+    void requestOverBudgetFlaggedTest() throws Exception {
+        properties.setStatementBudget(3);
+        profiler.beginRequest();
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("select name from t where id = ?")) {
+            for (int i = 0; i < 5; i++) {
+                ps.setInt(1, i);
+                ps.executeQuery().close();
+            }
+        }
+        assertThat(profiler.endRequest("GET /api/users")).isEqualTo(5);
+        assertThat(registry.counter("users.query.budget.exceeded").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("disabledHandsOutPlainConnections")
+    void disabledHandsOutPlainConnectionsTest() throws Exception {
+        properties.setEnabled(false);
+        try (Connection con = dataSource.getConnection()) {
+            assertThat(Proxy.isProxyClass(con.getClass())).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("literalsRedacted")
+    void literalsRedactedTest() {
+        assertThat(QueryProfiler.redact("select * from users where email = 'a@b.com' and version = 42"))
+                .isEqualTo("select * from users where email = ? and version = ?");
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.user.configuration;
+
+import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserFilter;
+import com.example.user.exceptions.NotFoundRecordException;
+import com.example.user.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the replica is its own in-memory database that only sees rows syncReplica() copies over, i.e. it lags until then
+@SpringBootTest(properties = "users.datasource.routing.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class ReplicaRoutingDataSourceTest {
+    private static final String REPLICA_URL = "jdbc:h2:mem:users_replica_test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final List<String> REPLICATED = List.of("users", "user_tombstones");
+
+    @Autowired
+    ReplicaRoutingDataSource routing;
+    @Autowired
+    UserService userService;
+    @Autowired
+    MockMvc mvc;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        // a list binds from one property source only, so the whole replica entry is registered here
+        registry.add("users.datasource.routing.replicas[0].url", () -> REPLICA_URL);
+        registry.add("users.datasource.routing.replicas[0].username", () -> "sa");
+        registry.add("users.datasource.routing.replicas[0].password", () -> "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(routing.getRoutes().get(ReplicaRoutingDataSource.PRIMARY));
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        syncReplica();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.end();
+    }
+
+    @Test
+    @DisplayName("readsGoToReplica")
+    void readsGoToReplicaTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        Timestamp now = Timestamp.from(Instant.now());
+        replica.update("insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version) "
+                + "values (?, 'Replica', 'Only', 'replica-only@example.org', 'x', true, ?, ?, 0)", id, now, now);
+        Map<String, Long> before = routing.getRoutedCounts();
+
+        // only the replica has this row, so finding it proves where the read went
+        mvc.perform(get("/api/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.email").value("replica-only@example.org"));
+        mvc.perform(get("/api/users/changes")).andExpect(status().isOk());
+
+        Map<String, Long> after = routing.getRoutedCounts();
+        assertThat(after.get("replica-0")).isGreaterThan(before.get("replica-0"));
+        assertThat(after.get(ReplicaRoutingDataSource.PRIMARY)).isEqualTo(before.get(ReplicaRoutingDataSource.PRIMARY));
+        assertThat(primary.queryForObject("select count(*) from users where id = ?", Long.class, id)).isZero();
+    }
+
+    @Test
+    @DisplayName("writesReachReplicaOnlyWhenSynced")
+    void writesReachReplicaOnlyWhenSyncedTest() {
+        // no request scope: nothing pins the read that follows
+        UUID id = userService.create(request("lagging@example.org")).getId();
+
+        assertThat(primary.queryForObject("select count(*) from users where id = ?", Long.class, id)).isOne();
+        assertThatThrownBy(() -> userService.getById(id)).isInstanceOf(NotFoundRecordException.class);
+
+        syncReplica();
+        assertThat(userService.getById(id).getEmail()).isEqualTo("lagging@example.org");
+    }
+
+    @Test
+    @DisplayName("taggedReadsGoToPrimary")
+    void taggedReadsGoToPrimaryTest() throws Exception {
+        Map<String, Long> before = routing.getRoutedCounts();
+
+        String etag = mvc.perform(get("/api/users")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/api/users/stats")).andExpect(status().isOk());
+
+        Map<String, Long> after = routing.getRoutedCounts();
+        assertThat(after.get("replica-0")).isEqualTo(before.get("replica-0"));
+        assertThat(after.get(ReplicaRoutingDataSource.PRIMARY)).isGreaterThan(before.get(ReplicaRoutingDataSource.PRIMARY));
+
+        // a 304 costs the watermark query on the primary and nothing else
+        mvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+        assertThat(routing.getRoutedCounts()).containsEntry("replica-0", after.get("replica-0"))
+                .containsEntry(ReplicaRoutingDataSource.PRIMARY, after.get(ReplicaRoutingDataSource.PRIMARY) + 1);
+    }
+
+    @Test
+    @DisplayName("readYourWrites")
+    void readYourWritesTest() {
+        ReadYourWritesContext.begin();
+        UUID id = userService.create(request("ryw@example.org")).getId();
+        Map<String, Long> afterWrite = routing.getRoutedCounts();
+
+        // not synced yet: only the primary can answer these
+        assertThat(userService.getById(id).getEmail()).isEqualTo("ryw@example.org");
+        assertThat(userService.getList(UserFilter.builder().q("ryw").active(true).build(), 0, 10, null).getTotalElements()).isEqualTo(1);
+
+        Map<String, Long> afterRead = routing.getRoutedCounts();
+        assertThat(afterRead.get("replica-0")).isEqualTo(afterWrite.get("replica-0"));
+        assertThat(afterRead.get(ReplicaRoutingDataSource.PRIMARY)).isGreaterThan(afterWrite.get(ReplicaRoutingDataSource.PRIMARY));
+    }
+
+    /** Replaces the replicated tables on the replica with the primary's rows; generated columns are recomputed there. */
+    private void syncReplica() {
+        for (String table : REPLICATED) {
+            List<String> columns = primary.queryForList("select column_name from information_schema.columns "
+                    + "where table_schema = 'public' and table_name = ? and is_generated = 'NEVER' order by ordinal_position", String.class, table);
+            String insert = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            List<Object[]> rows = primary.query("select " + String.join(", ", columns) + " from " + table, (rs, i) -> {
+                Object[] row = new Object[columns.size()];
+                for (int c = 0; c < row.length; c++) {
+                    row[c] = rs.getObject(c + 1);
+                }
+                return row;
+            });
+            replica.update("delete from " + table);
+            replica.batchUpdate(insert, rows);
+        }
+    }
+
+    private static CreateUserRequest request(String email) {
+        return CreateUserRequest.builder()
+                .firstName("Israel")
+                .lastName("Israeli")
+                .email(email)
+                .password("Secret1!")
+                .build();
+    }
+}
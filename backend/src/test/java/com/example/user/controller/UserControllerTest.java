@@ -4,12 +4,21 @@ import com.example.user.exceptions.DuplicateRecordException;
 import com.example.user.exceptions.NotFoundRecordException;
 import com.example.user.exceptions.UserAlreadyInactiveException;
 import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserChangesResponse;
+import com.example.user.api.UserFilter;
 import com.example.user.api.UserResponse;
 import com.example.user.api.UserStatsResponseDto;
+import com.example.user.service.UserChangedEvent;
 import com.example.user.service.UserService;
+import com.example.user.service.UserStatsStream;
+import com.example.user.service.UserWriteEpoch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import jakarta.annotation.Resource;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -20,20 +29,29 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@Import(ExceptionController.class)
+@Import({ExceptionController.class, UserStatsStream.class})
 @WithMockUser
-@WebMvcTest(controllers = UserController.class)
+@WebMvcTest(controllers = UserController.class, properties = "users.stats-stream.max-connections=1")
 public class UserControllerTest {
 
     @Resource
@@ -42,6 +60,20 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserWriteEpoch writeEpoch;
+    // no database here: a counter stands in for the watermark query
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Resource
+    private UserStatsStream statsStream;
+
+    @BeforeEach
+    void setUp() {
+        when(writeEpoch.etag(any())).thenAnswer(i -> "\"" + epoch.get() + "-"
+                + Arrays.stream(i.getArguments()).map(String::valueOf).collect(Collectors.joining("-")) + "\"");
+    }
+
     @Test
     @DisplayName("createSuccess")
     void createSuccessTest() throws Exception {
@@ -140,7 +172,7 @@ public class UserControllerTest {
 
         var page = new PageImpl<>(List.of(resp), PageRequest.of(0, 20), 1);
 
-        when(userService.getList(eq("Isr"), eq(true), eq(0), eq(20), isNull()))
+        when(userService.getList(eq(UserFilter.builder().q("Isr").active(true).build()), eq(0), eq(20), isNull()))
                 .thenReturn(page);
 
         mvc.perform(get("/api/users")
@@ -155,10 +187,38 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.data.meta.totalElements").value(1));
     }
 
+    @Test
+    @DisplayName("getListFilters")
+    void getListFiltersTest() throws Exception {
+        UserFilter filter = UserFilter.builder()
+                .active(false)
+                .createdFrom(Instant.parse("2024-01-01T00:00:00Z"))
+                .createdTo(Instant.parse("2024-02-01T00:00:00Z"))
+                .emailDomain("example.com")
+                .namePrefix("isr")
+                .build();
+        when(userService.getList(eq(filter), eq(0), eq(20), eq("updatedAt,asc")))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        mvc.perform(get("/api/users")
+                        .param("active", "false")
+                        .param("createdFrom", "2024-01-01T00:00:00Z")
+                        .param("createdTo", "2024-02-01T00:00:00Z")
+                        .param("emailDomain", "example.com")
+                        .param("namePrefix", "isr")
+                        .param("sort", "updatedAt,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.meta.totalElements").value(0));
+
+        mvc.perform(get("/api/users").param("createdFrom", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for parameter createdFrom"));
+    }
+
     @Test
     @DisplayName("serverUnavailable")
     void getListServerUnavailableTest() throws Exception {
-        when(userService.getList(any(), anyBoolean(), anyInt(), anyInt(), any()))
+        when(userService.getList(any(), anyInt(), anyInt(), any()))
                 .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("dbOps")));
 
         mvc.perform(get("/api/users")
@@ -167,6 +227,35 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.status").value("SERVICE_UNAVAILABLE"));
     }
 
+    @Test
+    @DisplayName("getById")
+    void getByIdSuccessTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(userService.getById(id)).thenReturn(UserResponse.builder()
+                .id(id)
+                .firstName("Israel")
+                .lastName("Israeli")
+                .email("israel@example.com")
+                .active(true)
+                .build());
+
+        mvc.perform(get("/api/users/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("OK"))
+                .andExpect(jsonPath("$.data.id").value(id.toString()));
+    }
+
+    @Test
+    @DisplayName("getByIdNotFound")
+    void getByIdNotFoundTest() throws Exception {
+        when(userService.getById(any(UUID.class)))
+                .thenThrow(new NotFoundRecordException("User not found"));
+
+        mvc.perform(get("/api/users/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("NOT_FOUND"));
+    }
+
     @Test
     @DisplayName("softDelete")
     void softDeleteTest() throws Exception {
@@ -207,6 +296,18 @@ public class UserControllerTest {
     }
 
 
+    @Test
+    @DisplayName("getChanges")
+    void getChangesTest() throws Exception {
+        when(userService.getChanges(eq("abc"), eq(50)))
+                .thenReturn(UserChangesResponse.builder().items(List.of()).nextToken("abc").hasMore(false).build());
+
+        mvc.perform(get("/api/users/changes").param("since", "abc").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nextToken").value("abc"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
     @Test
     @DisplayName("getStats")
     void getStatsSuccessTest() throws Exception {
@@ -219,4 +320,150 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.data.createdLast24h").value(5));
     }
 
+    @Test
+    @DisplayName("getListCbor")
+    void getListCborTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        Instant createdAt = Instant.parse("2024-05-01T10:15:30.123456Z");
+        var resp = UserResponse.builder()
+                .id(id)
+                .firstName("Israel")
+                .lastName("Israeli")
+                .email("israel@example.com")
+                .active(true)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        when(userService.getList(any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PageImpl<>(List.of(resp), PageRequest.of(0, 20), 1));
+
+        byte[] body = mvc.perform(get("/api/users").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode item = new CBORMapper().readTree(body).at("/data/items/0");
+        assertThat(item.get("id").isBinary()).isTrue();
+        ByteBuffer raw = ByteBuffer.wrap(item.get("id").binaryValue());
+        assertThat(new UUID(raw.getLong(), raw.getLong())).isEqualTo(id);
+        assertThat(item.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(item.get("createdAt").asLong()).isEqualTo(createdAt.toEpochMilli());
+        assertThat(item.get("email").asText()).isEqualTo("israel@example.com");
+    }
+
+    @Test
+    @DisplayName("getByIdSmile")
+    void getByIdSmileTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(userService.getById(id)).thenReturn(UserResponse.builder().id(id).email("israel@example.com").build());
+
+        byte[] body = mvc.perform(get("/api/users/{id}", id).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new SmileMapper().readTree(body).at("/data/email").asText()).isEqualTo("israel@example.com");
+    }
+
+    @Test
+    @DisplayName("getListNotModified")
+    void getListNotModifiedTest() throws Exception {
+        when(userService.getList(any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        String etag = mvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"");
+
+        mvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userService, times(1)).getList(any(), anyInt(), anyInt(), any());
+
+        mvc.perform(get("/api/users").header("If-None-Match", etag).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk());
+
+        epoch.incrementAndGet();
+        mvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)));
+    }
+
+    @Test
+    @DisplayName("getListTagFollowsSelectedMediaType")
+    void getListTagFollowsSelectedMediaTypeTest() throws Exception {
+        when(userService.getList(any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 20), 0));
+
+        String json = mvc.perform(get("/api/users"))
+                .andExpect(header().stringValues("Vary", org.hamcrest.Matchers.hasItem("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // mentions cbor but prefers JSON, which is what gets written: same representation, same tag
+        mvc.perform(get("/api/users").header("Accept", "application/cbor;q=0.5, application/json")
+                        .header("If-None-Match", json))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("Vary", org.hamcrest.Matchers.hasItem("Accept")));
+
+        String smile = mvc.perform(get("/api/users").header("Accept", "application/cbor;q=0.5, application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(smile).isNotEqualTo(json);
+        mvc.perform(get("/api/users").accept("application/x-jackson-smile").header("If-None-Match", smile))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("getStatsNotModified")
+    void getStatsNotModifiedTest() throws Exception {
+        when(userService.getStats())
+                .thenReturn(UserStatsResponseDto.builder().createdLast24h(5L).build());
+
+        String etag = mvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(get("/api/users/stats").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(userService, times(1)).getStats();
+    }
+
+    @Test
+    @DisplayName("statsStream")
+    void statsStreamTest() throws Exception {
+        when(userService.getStats())
+                .thenReturn(UserStatsResponseDto.builder().createdLast24h(5L).build())
+                .thenReturn(UserStatsResponseDto.builder().createdLast24h(6L).build());
+
+        MvcResult result = mvc.perform(get("/api/users/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andReturn();
+        try {
+            awaitContent(result, "{\"createdLast24h\":5}");
+            assertThat(result.getResponse().getContentAsString()).contains("event:stats\n");
+
+            // a second subscriber is over the cap
+            mvc.perform(get("/api/users/stats/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+
+            statsStream.onUserChanged(new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Kind.CREATED));
+            awaitContent(result, "{\"createdLast24h\":6}");
+        } finally {
+            result.getRequest().getAsyncContext().complete();
+        }
+        assertThat(statsStream.subscriberCount()).isZero();
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            assertThat(System.nanoTime()).as("stream did not send " + expected).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package com.example.user.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class BreachedPasswordsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("plainList")
+    void plainListTest() throws Exception {
+        Path file = dir.resolve("breached.bin");
+        String list = "password1\nQwerty123!\n\npassword1\nPässwörd1!\n";
+
+        assertThat(BreachedPasswordsBuilder.build(new BufferedReader(new StringReader(list)), file, true, 2)).isEqualTo(3);
+
+        BreachedPasswords breached = new BreachedPasswords(file);
+        assertThat(breached.size()).isEqualTo(3);
+        assertThat(breached.contains("password1")).isTrue();
+        assertThat(breached.contains("Qwerty123!")).isTrue();
+        assertThat(breached.contains("Pässwörd1!")).isTrue();
+        assertThat(breached.contains("Password1")).isFalse();
+        assertThat(breached.contains("")).isFalse();
+    }
+
+    @Test
+    @DisplayName("hashList")
+    void hashListTest() throws Exception {
+        Path file = dir.resolve("breached.bin");
+        // Have I Been Pwned format, upper case with counts, not sorted
+        String list = sha1Hex("letmein") + ":12\n" + sha1Hex("Secret1!").toLowerCase() + ":3\n" + sha1Hex("letmein") + ":12\n";
+
+        assertThat(BreachedPasswordsBuilder.build(new BufferedReader(new StringReader(list)), file, false, 1 << 10)).isEqualTo(2);
+
+        BreachedPasswords breached = new BreachedPasswords(file);
+        assertThat(breached.contains("letmein")).isTrue();
+        assertThat(breached.contains("Secret1!")).isTrue();
+        assertThat(breached.contains("Secret1?")).isFalse();
+        assertThatThrownBy(() -> BreachedPasswordsBuilder.build(new BufferedReader(new StringReader("not a hash\n")), file, false, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Line 1");
+    }
+
+    @Test
+    @DisplayName("search")
+    void searchTest() throws Exception {
+        Random random = new Random(42);
+        long[] members = LongStream.generate(random::nextLong).limit(100_000).toArray();
+        // the ends of the unsigned range
+        members[0] = 0;
+        members[1] = -1;
+        members[2] = Long.MIN_VALUE;
+        members[3] = Long.MAX_VALUE;
+        String list = LongStream.of(members).mapToObj(p -> String.format("%016X%024d", p, 0)).collect(Collectors.joining("\n"));
+        Path file = dir.resolve("breached.bin");
+        BreachedPasswordsBuilder.build(new BufferedReader(new StringReader(list)), file, false, 30_000);
+        BreachedPasswords breached = new BreachedPasswords(file);
+
+        for (long p : members) {
+            assertThat(breached.containsPrefix(p)).as("%016x", p).isTrue();
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long p = random.nextLong();
+            assertThat(breached.containsPrefix(p)).isFalse();
+        }
+        assertThat(breached.containsPrefix(1)).isFalse();
+        assertThat(breached.containsPrefix(-2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("skewedCorpusProbes")
+    void skewedCorpusProbesTest() throws Exception {
+        // all but one entry packed at the bottom of the range: interpolation guesses the first entry every time
+        int n = 100_000;
+        String list = LongStream.concat(LongStream.rangeClosed(1, n - 1), LongStream.of(-1))
+                .mapToObj(p -> String.format("%016X%024d", p, 0)).collect(Collectors.joining("\n"));
+        Path file = dir.resolve("breached.bin");
+        BreachedPasswordsBuilder.build(new BufferedReader(new StringReader(list)), file, false, 1 << 16);
+        BreachedPasswords breached = new BreachedPasswords(file);
+
+        // 16 interpolation steps, then bisection of what is left
+        int bound = 16 + 64 - Long.numberOfLeadingZeros(n) + 1;
+        for (long p : new long[]{1, 2, n / 2, n - 2, n - 1, -1}) {
+            int probes = breached.probes(p);
+            assertThat(probes).as("%d", p).isPositive().isLessThanOrEqualTo(bound);
+        }
+        for (long p : new long[]{n, n + 1L, Long.MAX_VALUE, -2}) {
+            int probes = breached.probes(p);
+            assertThat(probes).as("%d", p).isNegative();
+            assertThat(~probes).as("%d", p).isLessThanOrEqualTo(bound);
+        }
+    }
+
+    @Test
+    @DisplayName("prefix")
+    void prefixTest() throws Exception {
+        BreachedPasswords.Scratch scratch = new BreachedPasswords.Scratch();
+        String longPassword = "x".repeat(500);
+        for (String p : new String[]{"", "abc", "Pässwörd", "密码123", "pass😀word", "lone\ud800surrogate", longPassword}) {
+            long expected = Long.parseUnsignedLong(sha1Hex(p).substring(0, 16), 16);
+            assertThat(BreachedPasswords.prefix(p, scratch)).as(p).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("lookupAllocationFree")
+    void lookupAllocationFreeTest() throws Exception {
+        Path file = dir.resolve("breached.bin");
+        BreachedPasswordsBuilder.build(new BufferedReader(new StringReader("password1\nletmein\n")), file, true, 16);
+        BreachedPasswords breached = new BreachedPasswords(file);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] passwords = {"password1", "Abcdef1!Ghij", "Pässwörd1!"};
+        for (int i = 0; i < 20_000; i++) {
+            breached.contains(passwords[i % passwords.length]);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int found = 0;
+        for (int i = 0; i < 20_000; i++) {
+            found += breached.contains(passwords[i % passwords.length]) ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(found).isEqualTo(6667);
+        // the measurement itself may allocate a little; a single allocation per lookup would be 20_000 objects
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    @Test
+    @DisplayName("notACorpus")
+    void notACorpusTest() throws Exception {
+        Path file = dir.resolve("breached.bin");
+        Files.writeString(file, "password1\nletmein\n");
+        assertThatThrownBy(() -> new BreachedPasswords(file)).isInstanceOf(IOException.class);
+
+        BreachedPasswordsBuilder.build(new BufferedReader(new StringReader("password1\n")), file, true, 16);
+        Files.write(file, new byte[]{1}, java.nio.file.StandardOpenOption.APPEND);
+        assertThatThrownBy(() -> new BreachedPasswords(file)).isInstanceOf(IOException.class).hasMessageContaining("truncated");
+    }
+
+    private static String sha1Hex(String password) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().withUpperCase().formatHex(hash);
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.user.domain;
 
+import com.example.user.exceptions.BreachedPasswordException;
 import com.example.user.exceptions.RequiredParamsException;
 import com.example.user.exceptions.ShortPasswordException;
 import com.example.user.exceptions.WeakPasswordException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+
 import static org.assertj.core.api.Assertions.*;
 public class PasswordPolicyTest {
     PasswordPolicy policy = new PasswordPolicy();
@@ -88,6 +94,20 @@ public class PasswordPolicyTest {
         assertThatCode(() -> policy.validate("user@other.com", pwd))
                 .doesNotThrowAnyException();
     }
-    
 
+    @Test
+    @DisplayName("breachedPassword")
+    void breachedPasswordTest(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("breached.bin");
+        BreachedPasswordsBuilder.build(new BufferedReader(new StringReader("Abcd1234\nPassword1!\n")), file, true, 16);
+        PasswordPolicy withCorpus = new PasswordPolicy(PasswordRules.DEFAULT, new BreachedPasswords(file));
+
+        assertThatThrownBy(() -> withCorpus.validate("user@other.com", "Password1!"))
+                .isInstanceOf(BreachedPasswordException.class);
+        assertThatCode(() -> withCorpus.validate("user@other.com", "Abc1!def"))
+                .doesNotThrowAnyException();
+        // the cheap rules come first
+        assertThatThrownBy(() -> withCorpus.validate("user@example.com", "Abcd1234"))
+                .isInstanceOf(ShortPasswordException.class);
+    }
 }
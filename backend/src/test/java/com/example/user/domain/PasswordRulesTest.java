@@ -0,0 +1,93 @@
+package com.example.user.domain;
+
+import com.example.user.configuration.PasswordRulesProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PasswordRulesTest {
+
+    @Test
+    @DisplayName("defaults")
+    void defaultsTest() {
+        PasswordRules rules = PasswordRules.DEFAULT;
+        assertThat(rules.check("user@other.com", "Abc1!def")).isNull();
+        assertThat(rules.check("user@other.com", "Abc1!de")).isEqualTo(PasswordRules.Violation.TOO_SHORT);
+        assertThat(rules.check("user@other.com", "abcd1234")).isEqualTo(PasswordRules.Violation.TOO_FEW_CLASSES);
+        assertThat(rules.check("User@EXAMPLE.com", "Abc1!defghi")).isEqualTo(PasswordRules.Violation.TOO_SHORT);
+        assertThat(rules.check("User@EXAMPLE.com", "Abc1!defghij")).isNull();
+        // a subdomain or a look-alike is not the domain
+        assertThat(rules.check("user@mail.example.com", "Abc1!def")).isNull();
+        assertThat(rules.check("user@notexample.com", "Abc1!def")).isNull();
+        // anything outside [A-Za-z0-9] is "other", including line breaks and non-ASCII letters
+        assertThat(rules.check("user@other.com", "abcdefg\n1")).isNull();
+        assertThat(rules.check("user@other.com", "abcdefgé1")).isNull();
+    }
+
+    @Test
+    @DisplayName("configured")
+    void configuredTest() {
+        PasswordRulesProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "users.password.rules.min-length", "10",
+                "users.password.rules.min-classes", "2",
+                "users.password.rules.required", "digit",
+                "users.password.rules.domains[0].domain", "corp.local",
+                "users.password.rules.domains[0].min-length", "16",
+                "users.password.rules.domains[0].required", "digit,other",
+                "users.password.rules.domains[1].domain", "guest.local",
+                "users.password.rules.domains[1].min-classes", "0",
+                "users.password.rules.domains[1].required", "")))
+                .bind("users.password.rules", PasswordRulesProperties.class).get();
+        PasswordRules rules = properties.toRules();
+
+        assertThat(rules.check("a@b.com", "abcdefghi1")).isNull();
+        assertThat(rules.check("a@b.com", "abcdefghiJ")).isEqualTo(PasswordRules.Violation.MISSING_CLASS);
+        assertThat(rules.check("a@b.com", "abcdefgh1")).isEqualTo(PasswordRules.Violation.TOO_SHORT);
+        assertThat(rules.check("a@corp.local", "abcdefghijklmno1")).isEqualTo(PasswordRules.Violation.MISSING_CLASS);
+        assertThat(rules.check("a@corp.local", "abcdefghijklmn1!")).isNull();
+        // inherits min-length 10, drops the class rules
+        assertThat(rules.check("a@guest.local", "aaaaaaaaaa")).isNull();
+        assertThat(rules.check("a@guest.local", "aaaaaaaaa")).isEqualTo(PasswordRules.Violation.TOO_SHORT);
+    }
+
+    @Test
+    @DisplayName("invalidRules")
+    void invalidRulesTest() {
+        assertThatThrownBy(() -> new PasswordRules.Rule(-1, 3, Set.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PasswordRules.Rule(8, 5, Set.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PasswordRules.DomainRule("user@example.com", new PasswordRules.Rule(8, 3, Set.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PasswordRules(new PasswordRules.Rule(8, 3, Set.of()),
+                List.of(new PasswordRules.DomainRule(" ", new PasswordRules.Rule(8, 3, Set.of())))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("checkAllocationFree")
+    void checkAllocationFreeTest() {
+        PasswordRules rules = PasswordRules.DEFAULT;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[][] cases = {{"user@other.com", "Abcdef1!Ghij"}, {"User@Example.com", "Abcdef1!Ghijkl"}, {"user@other.com", "abcdefghijkl"}};
+        for (int i = 0; i < 20_000; i++) {
+            rules.check(cases[i % 3][0], cases[i % 3][1]);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int failed = 0;
+        for (int i = 0; i < 20_000; i++) {
+            failed += rules.check(cases[i % 3][0], cases[i % 3][1]) != null ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(failed).isEqualTo(6666);
+        assertThat(allocated).isLessThan(1024);
+    }
+}
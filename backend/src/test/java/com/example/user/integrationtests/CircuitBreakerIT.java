@@ -1,5 +1,6 @@
 package com.example.user.integrationtests;
 
+import com.example.user.api.UserFilter;
 import com.example.user.controller.ExceptionController;
 import com.example.user.repository.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -43,7 +45,7 @@ class CircuitBreakerIT {
 
     @Test
     void circuitOpensTest() throws Exception {
-        when(repo.search(any(), anyBoolean(), any())).thenThrow(new DataAccessResourceFailureException("db down"));
+        when(repo.search(any(UserFilter.class), any(Pageable.class))).thenThrow(new DataAccessResourceFailureException("db down"));
 
         mvc.perform(get("/api/users")).andExpect(status().is5xxServerError());
 
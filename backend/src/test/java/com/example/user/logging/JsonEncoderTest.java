@@ -0,0 +1,59 @@
+package com.example.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonEncoderTest {
+    private final JsonEncoder encoder = new JsonEncoder();
+    private final Logger logger = new LoggerContext().getLogger("com.example.user.service.UserService");
+
+    @Test
+    @DisplayName("encodesOneJsonLine")
+    void encodesOneJsonLineTest() throws Exception {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.WARN,
+                "Created \"{}\"\n", new IllegalStateException("boom"), new Object[]{"a\\b"});
+        event.setMDCPropertyMap(Map.of("traceId", "4bf92f3577b34da6a3ce929d0e0e4736"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertThat(line).endsWith("}\n").doesNotContain("\n{");
+        assertThat(line.indexOf('\n')).isEqualTo(line.length() - 1);
+        JsonNode json = new ObjectMapper().readTree(line);
+        assertThat(json.get("level").asText()).isEqualTo("WARN");
+        assertThat(json.get("logger").asText()).isEqualTo("com.example.user.service.UserService");
+        assertThat(json.get("message").asText()).isEqualTo("Created \"a\\b\"\n");
+        assertThat(json.get("traceId").asText()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(json.get("stack_trace").asText()).contains("IllegalStateException: boom");
+        assertThat(json.get("@timestamp").asText()).endsWith("Z");
+    }
+
+    @Test
+    @DisplayName("reservedMdcKeysAreRenamed")
+    void reservedMdcKeysAreRenamedTest() throws Exception {
+        LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "real", null, null);
+        event.setMDCPropertyMap(Map.of("message", "from mdc", "level", "x", "@timestamp", "y", "traceId", "t"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        ObjectMapper strict = new ObjectMapper().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+        JsonNode json = strict.readTree(line);
+        assertThat(json.get("message").asText()).isEqualTo("real");
+        assertThat(json.get("level").asText()).isEqualTo("INFO");
+        assertThat(json.get("mdc.message").asText()).isEqualTo("from mdc");
+        assertThat(json.get("mdc.level").asText()).isEqualTo("x");
+        assertThat(json.get("mdc.@timestamp").asText()).isEqualTo("y");
+        assertThat(json.get("traceId").asText()).isEqualTo("t");
+    }
+}
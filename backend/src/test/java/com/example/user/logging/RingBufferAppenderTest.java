@@ -0,0 +1,103 @@
+package com.example.user.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferAppenderTest {
+    private LoggerContext context;
+    private Logger logger;
+    private RingBufferAppender ring;
+    private BlockingListAppender sink;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        sink = new BlockingListAppender();
+        sink.setContext(context);
+        sink.start();
+        ring = new RingBufferAppender();
+        ring.setContext(context);
+        ring.setName("ASYNC");
+        ring.setBufferSize(4);
+        ring.addAppender(sink);
+        ring.start();
+        logger = context.getLogger("test");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(ring);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.release.countDown();
+        context.stop();
+    }
+
+    @Test
+    @DisplayName("deliversInOrder")
+    void deliversInOrderTest() throws Exception {
+        sink.release.countDown();
+        for (int i = 0; i < 3; i++) {
+            logger.info("event {}", i);
+        }
+        ring.stop();
+        assertThat(sink.events).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("event 0", "event 1", "event 2");
+    }
+
+    @Test
+    @DisplayName("fullBufferDropsInfoButNotErrors")
+    void fullBufferDropsInfoButNotErrorsTest() throws Exception {
+        logger.info("first");
+        assertThat(sink.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            logger.info("info {}", i);
+            logger.debug("debug {}", i);
+        }
+        Thread error = new Thread(() -> logger.error("must arrive"));
+        error.start();
+        Thread.sleep(50);
+        assertThat(error.isAlive()).as("error waits for room").isTrue();
+
+        sink.release.countDown();
+        error.join(5_000);
+        ring.stop();
+
+        assertThat(ring.getDroppedInfo() + ring.getDroppedDebug()).isEqualTo(16);
+        assertThat(sink.events).extracting(ILoggingEvent::getFormattedMessage)
+                .startsWith("first")
+                .endsWith("must arrive")
+                .hasSize(6);
+    }
+
+    static class BlockingListAppender extends AppenderBase<ILoggingEvent> {
+        final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+    }
+}
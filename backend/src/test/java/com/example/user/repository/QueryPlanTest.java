@@ -0,0 +1,164 @@
+package com.example.user.repository;
+
+import com.example.user.api.UserFilter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL Hibernate generates for each {@link UserRepository} query and fails when H2
+ * plans a {@code tableScan}. Only the count of a {@code like '%q%'} search may scan; nothing can index that.
+ * Runs on the PostgreSQL-mode database of the test profile with the Flyway schema, after {@code ANALYZE}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.user.repository.QueryPlanTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class QueryPlanTest {
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 20,
+            Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id").descending()));
+
+    @Autowired
+    private UserRepository repo;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from users");
+        Instant now = Instant.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Timestamp ts = Timestamp.from(now.minusSeconds(i * 60L));
+            rows.add(new Object[]{UUID.randomUUID(), "First" + i, "Last" + i, "user" + i + "@plan.local", "x",
+                    i % 10 != 0, ts, ts, 0L});
+        }
+        jdbc.batchUpdate("""
+                insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+        jdbc.execute("analyze");
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("listPage")
+    void listPageTest() {
+        repo.search(null, false, NEWEST_FIRST);
+        assertIndexed("list page");
+    }
+
+    @Test
+    @DisplayName("listActivePage")
+    void listActivePageTest() {
+        repo.search(null, true, NEWEST_FIRST);
+        assertIndexed("active list page");
+    }
+
+    @Test
+    @DisplayName("textSearch")
+    void textSearchTest() {
+        repo.search("user12", false, NEWEST_FIRST);
+        repo.search("user12", true, NEWEST_FIRST);
+        assertIndexed("text search", "count(");
+    }
+
+    @Test
+    @DisplayName("filters")
+    void filtersTest() {
+        Instant now = Instant.now();
+        List<UserFilter> filters = List.of(
+                UserFilter.builder().active(false).build(),
+                UserFilter.builder().createdFrom(now.minusSeconds(3600)).build(),
+                UserFilter.builder().createdFrom(now.minusSeconds(7200)).createdTo(now.minusSeconds(3600)).active(true).build(),
+                UserFilter.builder().emailDomain("plan.local").build(),
+                UserFilter.builder().emailDomain("plan.local").active(true).createdFrom(now.minusSeconds(3600)).build(),
+                UserFilter.builder().namePrefix("first12").build(),
+                UserFilter.builder().namePrefix("first12").active(true).build());
+        for (UserFilter filter : filters) {
+            repo.search(filter, NEWEST_FIRST);
+            repo.search(filter, PageRequest.of(0, 20, Sort.by("updatedAt", "id")));
+        }
+        assertIndexed("filters");
+    }
+
+    @Test
+    @DisplayName("countUsersCreatedSince")
+    void countUsersCreatedSinceTest() {
+        repo.countUsersCreatedSince(Instant.now().minusSeconds(86400));
+        assertIndexed("stats");
+    }
+
+    @Test
+    @DisplayName("findChangedAfter")
+    void findChangedAfterTest() {
+        repo.findChangedAfter(Instant.EPOCH, new UUID(0, 0), Instant.now(), PageRequest.of(0, 500));
+        assertIndexed("change feed");
+    }
+
+    @Test
+    @DisplayName("findByEmailIgnoreCase")
+    void findByEmailIgnoreCaseTest() {
+        assertThat(repo.findByEmailIgnoreCase(" User7@Plan.local")).isPresent();
+        assertIndexed("email lookup");
+    }
+
+    /** EXPLAINs every captured statement; statements containing one of {@code mayScan} are allowed to scan. */
+    private void assertIndexed(String what, String... mayScan) {
+        List<String> statements = List.copyOf(CapturingInspector.STATEMENTS);
+        assertThat(statements).as(what + " ran no SQL").isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            boolean allowed = false;
+            for (String marker : mayScan) {
+                allowed |= sql.contains(marker);
+            }
+            if (!allowed) {
+                assertThat(plan).as(what + " plans a full scan:%n%s", plan).doesNotContain(".tableScan");
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        int params = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbc.query("explain " + sql, ps -> {
+            for (int i = 1; i <= params; i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
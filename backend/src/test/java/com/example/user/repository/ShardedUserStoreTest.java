@@ -0,0 +1,170 @@
+package com.example.user.repository;
+
+import com.example.user.api.UserFilter;
+import com.example.user.entity.UserEntity;
+import com.example.user.exceptions.RequiredParamsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardedUserStoreTest {
+    private ShardedUserStore store;
+    private List<UserEntity> saved;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> shards = new ArrayList<>();
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            shards.add(new SimpleDriverDataSource(new org.h2.Driver(),
+                    "jdbc:h2:mem:shard_" + i + "_" + run + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                    "sa", ""));
+        }
+        store = new ShardedUserStore(shards, 3);
+        store.initSchema();
+
+        saved = new ArrayList<>();
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 30; i++) {
+            // every third pair shares a timestamp so the id tie-break is exercised too
+            saved.add(store.insert(user("u" + i + "@ex.com", i % 5 != 0, base.plusSeconds(i / 2), base.plusSeconds((30 - i) / 3))));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.destroy();
+    }
+
+    @Test
+    @DisplayName("spreadsOverShards")
+    void spreadsOverShardsTest() {
+        Set<Integer> used = saved.stream().map(u -> store.shardOf(u.getId())).collect(Collectors.toSet());
+        assertThat(used).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("watermarkCoversEveryShard")
+    void watermarkCoversEveryShardTest() {
+        ShardedUserStore.Watermark start = store.watermark();
+        assertThat(start.count()).isEqualTo(30);
+        assertThat(start.lastUpdated()).isEqualTo(Instant.parse("2024-01-01T00:00:10Z"));
+
+        store.deactivate(saved.get(7));
+        ShardedUserStore.Watermark deactivated = store.watermark();
+        assertThat(deactivated.lastUpdated()).isAfter(start.lastUpdated());
+
+        store.delete(saved.get(8));
+        assertThat(store.watermark().count()).isEqualTo(29);
+    }
+
+    @Test
+    @DisplayName("searchIsGloballyOrdered")
+    void searchIsGloballyOrderedTest() {
+        List<UUID> all = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Page<UserEntity> page = store.search(null, false, PageRequest.of(p, 8));
+            assertThat(page.getTotalElements()).isEqualTo(30);
+            page.forEach(u -> all.add(u.getId()));
+        }
+        assertThat(all).hasSize(30).doesNotHaveDuplicates();
+
+        List<Instant> created = all.stream().map(id -> store.findById(id).orElseThrow().getCreatedAt()).toList();
+        assertThat(created).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("searchHonorsSort")
+    void searchHonorsSortTest() throws Exception {
+        // one shard is a single database: its SQL order is what the merge has to reproduce
+        ShardedUserStore single = new ShardedUserStore(List.of(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:single_" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "")), 1);
+        try {
+            single.initSchema();
+            saved.forEach(single::insert);
+            for (Sort sort : List.of(Sort.by(Sort.Direction.ASC, "createdAt"), Sort.by(Sort.Direction.DESC, "updatedAt"),
+                    Sort.by(Sort.Direction.ASC, "updatedAt", "id"))) {
+                List<UUID> expected = single.search(null, false, PageRequest.of(0, 30, sort)).map(UserEntity::getId).toList();
+                List<UUID> actual = new ArrayList<>();
+                for (int p = 0; p < 4; p++) {
+                    store.search(null, false, PageRequest.of(p, 8, sort)).forEach(u -> actual.add(u.getId()));
+                }
+                assertThat(actual).as(sort.toString()).isEqualTo(expected);
+            }
+        } finally {
+            single.destroy();
+        }
+        assertThatThrownBy(() -> store.search(null, false, PageRequest.of(0, 8, Sort.by("email"))))
+                .isInstanceOf(RequiredParamsException.class);
+    }
+
+    @Test
+    @DisplayName("searchFilters")
+    void searchFiltersTest() {
+        Page<UserEntity> page = store.search("U1", true, PageRequest.of(0, 20));
+        // u1, u10..u19 minus the inactive u10 and u15
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.getContent()).allMatch(UserEntity::isActive);
+
+        UserFilter inactiveSince = UserFilter.builder()
+                .active(false)
+                .createdFrom(Instant.parse("2024-01-01T00:00:10Z"))
+                .emailDomain("@EX.com")
+                .namePrefix("User Sh")
+                .build();
+        // u20 and u25
+        assertThat(store.search(inactiveSince, PageRequest.of(0, 20)).getTotalElements()).isEqualTo(2);
+        assertThat(store.search(UserFilter.builder().namePrefix("sharded").build(), PageRequest.of(0, 20))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("emailDirectory")
+    void emailDirectoryTest() {
+        assertThat(store.findByEmail(" U7@ex.com ")).map(UserEntity::getId).contains(saved.get(7).getId());
+        assertThatThrownBy(() -> store.insert(user("u7@ex.com", true, Instant.now())))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        store.delete(saved.get(7));
+        assertThat(store.findByEmail("u7@ex.com")).isEmpty();
+        assertThat(store.findById(saved.get(7).getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("countUsersCreatedSince")
+    void countUsersCreatedSinceTest() {
+        assertThat(store.countUsersCreatedSince(Instant.parse("2024-01-01T00:00:10Z"))).isEqualTo(10);
+    }
+
+    private static UserEntity user(String email, boolean active, Instant createdAt) {
+        return user(email, active, createdAt, createdAt);
+    }
+
+    private static UserEntity user(String email, boolean active, Instant createdAt, Instant updatedAt) {
+        return UserEntity.builder()
+                .id(UUID.randomUUID())
+                .firstName("User")
+                .lastName("Sharded")
+                .email(email)
+                .passwordHash("passwordHash")
+                .active(active)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(0L)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.user.repository;
 
+import com.example.user.api.UserFilter;
 import com.example.user.entity.UserEntity;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,7 +10,6 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.test.context.jdbc.Sql;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -17,7 +17,6 @@ import java.time.Instant;
 import java.util.Optional;
 
 @DataJpaTest
-@Sql(scripts = "classpath:schema.sql")
 public class UserRepositoryTest {
     @Autowired
     private UserRepository repo;
@@ -63,6 +62,25 @@ public class UserRepositoryTest {
         assertThat(cnt).isEqualTo(2);
     }
 
+    @Test
+    @DisplayName("searchFilters")
+    void searchFiltersTest() {
+        PageRequest page = PageRequest.of(0, 10);
+        assertThat(repo.search(UserFilter.builder().emailDomain("@Copter.COM").build(), page))
+                .extracting(UserEntity::getEmail).containsExactly("eli@copter.com");
+        assertThat(repo.search(UserFilter.builder().namePrefix("israel isr").build(), page))
+                .extracting(UserEntity::getEmail).containsExactly("israel@example.com");
+        assertThat(repo.search(UserFilter.builder().namePrefix("eli").active(true).build(), page)).isEmpty();
+        assertThat(repo.search(UserFilter.builder().active(false).build(), page))
+                .extracting(UserEntity::getEmail).containsExactly("eli@copter.com");
+        assertThat(repo.search(UserFilter.builder().namePrefix("%").build(), page)).isEmpty();
+
+        Instant created = activeIsrael.getCreatedAt();
+        assertThat(repo.search(UserFilter.builder().createdFrom(created).createdTo(created.plusNanos(1000)).build(), page))
+                .extracting(UserEntity::getId).contains(activeIsrael.getId());
+        assertThat(repo.search(UserFilter.builder().createdTo(created).emailDomain("example.com").build(), page)).isEmpty();
+    }
+
     @Test
     @DisplayName("DataIntegrityViolationException")
     void uniqueEmailTest() {
@@ -84,6 +102,24 @@ public class UserRepositoryTest {
                 true, 0L));
         assertThatThrownBy(repo::flush).isInstanceOf(DataIntegrityViolationException.class);
     }
+    @Test
+    @DisplayName("findChangedAfter")
+    void findChangedAfterTest() {
+        var all = repo.findChangedAfter(Instant.EPOCH, new java.util.UUID(0, 0), Instant.now().plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(all).hasSize(2);
+
+        var last = all.get(1);
+        var after = repo.findChangedAfter(last.getUpdatedAt(), last.getId(), Instant.now().plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(after).isEmpty();
+
+        var first = all.get(0);
+        var rest = repo.findChangedAfter(first.getUpdatedAt(), first.getId(), Instant.now().plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(rest).extracting(UserEntity::getId).containsExactly(last.getId());
+    }
+
     @Test
     void search_pagination_and_ordering() {
         repo.deleteAll();
@@ -0,0 +1,54 @@
+package com.example.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "users.changes.retention=1h",
+        "users.changes.prune-batch-size=2"
+})
+@ActiveProfiles("test")
+public class TombstonePrunerTest {
+    @Autowired
+    TombstonePruner pruner;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from user_tombstones");
+    }
+
+    @Test
+    @DisplayName("prunesOnlyExpired")
+    void prunesOnlyExpiredTest() {
+        Instant old = Instant.now().minus(2, ChronoUnit.HOURS);
+        // five expired rows: two full batches and a short one
+        for (int i = 0; i < 5; i++) {
+            insert(old.plusSeconds(i));
+        }
+        UUID recent = insert(Instant.now().minus(10, ChronoUnit.MINUTES));
+
+        assertThat(pruner.pruneNow()).isEqualTo(5);
+        assertThat(jdbc.queryForList("select id from user_tombstones", UUID.class)).containsExactly(recent);
+        assertThat(pruner.pruneNow()).isZero();
+    }
+
+    private UUID insert(Instant deletedAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("insert into user_tombstones (id, deleted_at) values (?, ?)", id, Timestamp.from(deletedAt));
+        return id;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.user.service;
+
+import com.example.user.api.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "users.archive.enabled=true",
+        "users.archive.retention=1h",
+        "users.archive.batch-size=3",
+        "users.archive.pause=0ms",
+        "users.archive.lookup-through=true"
+})
+@ActiveProfiles("test")
+public class UserArchiverTest {
+    @Autowired
+    UserArchiver archiver;
+    @Autowired
+    UserService userService;
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final List<UUID> expired = new ArrayList<>();
+    private UUID recentlyInactive;
+    private UUID oldActive;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from users_archive");
+        jdbc.update("delete from users");
+        expired.clear();
+        Instant old = Instant.now().minus(2, ChronoUnit.HOURS);
+        // 7 rows: two full batches and a short one, with a timestamp tie to exercise the id part of the keyset
+        for (int i = 0; i < 7; i++) {
+            expired.add(insert("expired" + i, false, old.plusSeconds(i / 2)));
+        }
+        recentlyInactive = insert("recent", false, Instant.now());
+        oldActive = insert("active", true, old);
+    }
+
+    @Test
+    @DisplayName("archive")
+    void archiveTest() throws Exception {
+        double before = meterRegistry.counter("users.archive.moved").count();
+
+        assertThat(archiver.archiveNow()).isEqualTo(7);
+
+        assertThat(jdbc.queryForList("select id from users", UUID.class)).containsExactlyInAnyOrder(recentlyInactive, oldActive);
+        assertThat(jdbc.queryForList("select id from users_archive", UUID.class)).containsExactlyInAnyOrderElementsOf(expired);
+        assertThat(meterRegistry.counter("users.archive.moved").count() - before).isEqualTo(7);
+        assertThat(archiver.archiveNow()).isZero();
+    }
+
+    @Test
+    @DisplayName("lookupThrough")
+    void lookupThroughTest() throws Exception {
+        archiver.archiveNow();
+
+        UserResponse archived = userService.getById(expired.get(0));
+        assertThat(archived.getEmail()).isEqualTo("expired0@archive.local");
+        assertThat(archived.isActive()).isFalse();
+    }
+
+    private UUID insert(String name, boolean active, Instant updatedAt) {
+        UUID id = UUID.randomUUID();
+        Timestamp ts = Timestamp.from(updatedAt);
+        jdbc.update("""
+                insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                values (?, ?, 'Archived', ?, 'x', ?, ?, ?, 0)
+                """, id, name, name + "@archive.local", active, ts, ts);
+        return id;
+    }
+}
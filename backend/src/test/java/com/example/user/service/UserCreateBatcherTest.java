@@ -0,0 +1,165 @@
+package com.example.user.service;
+
+import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserResponse;
+import com.example.user.exceptions.DuplicateRecordException;
+import com.example.user.exceptions.UserException;
+import com.example.user.repository.UserRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(properties = {
+        "users.create.batching.enabled=true",
+        "users.create.batching.max-batch-size=16",
+        "users.create.batching.max-wait=20ms",
+        "users.create.batching.tx-timeout=1s"
+})
+@ActiveProfiles("test")
+public class UserCreateBatcherTest {
+    @Autowired
+    UserCreateBatcher batcher;
+    @Autowired
+    UserRepository repo;
+    @Autowired
+    CircuitBreakerRegistry circuitBreakers;
+
+    @BeforeEach
+    void clean() {
+        repo.deleteAll();
+        // duplicates and timeouts are failures to dbOps; enough of them across tests would open it
+        circuitBreakers.circuitBreaker("dbOps").reset();
+    }
+
+    @TestConfiguration
+    static class StallFlush {
+        static final AtomicReference<CountDownLatch> GATE = new AtomicReference<>();
+
+        // runs on the flusher inside the batch transaction, so an armed gate holds the flusher there
+        @EventListener
+        void onUserChanged(UserChangedEvent event) throws InterruptedException {
+            CountDownLatch gate = GATE.getAndSet(null);
+            if (gate != null) {
+                gate.await(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("concurrentCreates")
+    void concurrentCreatesTest() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<UserResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                CreateUserRequest req = request("user" + i + "@batch.com");
+                futures.add(pool.submit(() -> batcher.create(req)));
+            }
+            for (Future<UserResponse> f : futures) {
+                assertThat(f.get(30, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(repo.count()).isEqualTo(40);
+        assertThat(repo.findByEmailIgnoreCase("user7@batch.com")).isPresent();
+    }
+
+    @Test
+    @DisplayName("duplicatesAreSplitPerRow")
+    void duplicatesAreSplitPerRowTest() throws Exception {
+        batcher.create(request("taken@batch.com"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UserResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                CreateUserRequest req = request(i % 2 == 0 ? "TAKEN@batch.com" : "free" + i + "@batch.com");
+                futures.add(pool.submit(() -> batcher.create(req)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Future<UserResponse> f = futures.get(i);
+                if (i % 2 == 0) {
+                    assertThatThrownBy(() -> f.get(30, TimeUnit.SECONDS))
+                            .hasCauseInstanceOf(DuplicateRecordException.class);
+                } else {
+                    assertThat(f.get(30, TimeUnit.SECONDS).getEmail()).isEqualTo("free" + i + "@batch.com");
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(repo.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("timeoutOnlyWithdrawsQueuedRows")
+    void timeoutOnlyWithdrawsQueuedRowsTest() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        StallFlush.GATE.set(gate);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<UserResponse> taken = pool.submit(() -> batcher.create(request("taken@batch.com")));
+            // the flusher is now stuck in the first batch, so this one stays in the queue
+            while (StallFlush.GATE.get() != null) {
+                Thread.sleep(5);
+            }
+            Future<UserResponse> queued = pool.submit(() -> batcher.create(request("queued@batch.com")));
+
+            assertThatThrownBy(() -> queued.get(30, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOf(UserException.class)
+                    .hasMessage("Create timed out before it was written, please try again later");
+            // past its own deadline, the taken row still waits for its transaction instead of failing
+            assertThat(taken.isDone()).isFalse();
+
+            gate.countDown();
+            assertThat(taken.get(30, TimeUnit.SECONDS).getEmail()).isEqualTo("taken@batch.com");
+        } finally {
+            gate.countDown();
+            pool.shutdownNow();
+        }
+        // give the flusher a chance to pick up anything left behind
+        Thread.sleep(200);
+        assertThat(repo.findByEmailIgnoreCase("taken@batch.com")).isPresent();
+        assertThat(repo.findByEmailIgnoreCase("queued@batch.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rejectsAfterStop")
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void rejectsAfterStopTest() throws Exception {
+        batcher.stop();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThatThrownBy(() -> batcher.create(request("late@batch.com")))
+                .isInstanceOf(UserException.class)
+                .hasMessage("Create batcher stopped")
+                .extracting(e -> ((UserException) e).getStatus()).isEqualTo(503));
+        assertThat(repo.findByEmailIgnoreCase("late@batch.com")).isEmpty();
+    }
+
+    private static CreateUserRequest request(String email) {
+        return CreateUserRequest.builder()
+                .firstName("Israel")
+                .lastName("Israeli")
+                .email(email)
+                .password("Secret1!")
+                .build();
+    }
+}
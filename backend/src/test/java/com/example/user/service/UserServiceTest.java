@@ -2,28 +2,41 @@ package com.example.user.service;
 
 import com.example.user.exceptions.DuplicateRecordException;
 import com.example.user.exceptions.NotFoundRecordException;
+import com.example.user.exceptions.RequiredParamsException;
 import com.example.user.exceptions.UserAlreadyInactiveException;
+import com.example.user.exceptions.UserException;
 import com.example.user.api.CreateUserRequest;
+import com.example.user.api.UserChangeType;
+import com.example.user.api.UserChangesResponse;
+import com.example.user.api.UserFilter;
 import com.example.user.api.UserResponse;
 import com.example.user.api.UserStatsResponseDto;
 import com.example.user.domain.PasswordPolicy;
 import com.example.user.entity.UserEntity;
+import com.example.user.entity.UserTombstoneEntity;
+import com.example.user.exceptions.InvalidChangeTokenException;
 import com.example.user.repository.UserRepository;
+import com.example.user.repository.UserTombstoneRepository;
 import org.junit.jupiter.api.*;
 
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,9 +51,13 @@ public class UserServiceTest {
     @Mock
     UserRepository repo;
     @Mock
+    UserTombstoneRepository tombstones;
+    @Mock
     PasswordPolicy passwordPolicy;
     @Mock
     PasswordEncoder encoder;
+    @Mock
+    ApplicationEventPublisher events;
 
     @InjectMocks
     UserService service;
@@ -72,6 +89,7 @@ public class UserServiceTest {
         assertThat(saved.getValue().getPasswordHash()).isEqualTo("sct");
         assertThat(saved.getValue().isActive()).isTrue();
         assertThat(result).isNotNull();
+        verify(events).publishEvent(new UserChangedEvent(null, UserChangedEvent.Kind.CREATED));
     }
     @Test
     @DisplayName("createDuplicateEmail")
@@ -113,38 +131,76 @@ public class UserServiceTest {
     @DisplayName("getList")
     void getListSuccessTest() {
         ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
+        UserFilter filter = UserFilter.builder().q("Israel").active(true).emailDomain("example.com").build();
 
-        when(repo.search(any(), anyBoolean(), any(Pageable.class)))
+        when(repo.search(any(UserFilter.class), any(Pageable.class)))
                 .thenAnswer(inv -> {
-                    Pageable p = inv.getArgument(2);
+                    Pageable p = inv.getArgument(1);
                     return new PageImpl<>(List.of(user), p, 1);
                 });
 
-        Page<UserResponse> res = service.getList("Israel", true, -5, -1, "firstName,asc");
+        Page<UserResponse> res = service.getList(filter, -5, -1, "updatedAt,asc");
         assertThat(res.getTotalElements()).isEqualTo(1);
 
-        verify(repo).search(eq("Israel"), eq(true), pageableCap.capture());
+        verify(repo).search(eq(filter), pageableCap.capture());
         Pageable used = pageableCap.getValue();
         assertThat(used.getPageNumber()).isEqualTo(0);
         assertThat(used.getPageSize()).isEqualTo(20);
         var orders = used.getSort().toList();
-        assertThat(orders).hasSize(1);
-        assertThat(orders.get(0).getProperty()).isEqualTo("firstName");
+        assertThat(orders).hasSize(2);
+        assertThat(orders.get(0).getProperty()).isEqualTo("updatedAt");
         assertThat(orders.get(0).isAscending()).isTrue();
+        assertThat(orders.get(1).getProperty()).isEqualTo("id");
+        assertThat(orders.get(1).isAscending()).isTrue();
     }
 
     @Test
     @DisplayName("getListMaxPageSize")
     void getListMaxPageSizeTest() {
         ArgumentCaptor<Pageable> pageableCap = ArgumentCaptor.forClass(Pageable.class);
-        when(repo.search(any(), anyBoolean(), any(Pageable.class)))
-                .thenAnswer(inv -> new PageImpl<>(List.of(user), inv.getArgument(2), 1));
+        when(repo.search(any(UserFilter.class), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(user), inv.getArgument(1), 1));
 
-        service.getList(null, false, 3, 1000, null);
+        service.getList(new UserFilter(), 3, 1000, null);
 
-        verify(repo).search(isNull(), eq(false), pageableCap.capture());
+        verify(repo).search(any(UserFilter.class), pageableCap.capture());
         assertThat(pageableCap.getValue().getPageNumber()).isEqualTo(3);
         assertThat(pageableCap.getValue().getPageSize()).isEqualTo(100); // MAX_PAGE_SIZE
+        assertThat(pageableCap.getValue().getSort().toList())
+                .extracting(Sort.Order::getProperty).containsExactly("createdAt", "id");
+    }
+
+    @Test
+    @DisplayName("getListInvalidParams")
+    void getListInvalidParamsTest() {
+        assertThatThrownBy(() -> service.getList(new UserFilter(), 0, 20, "firstName,asc"))
+                .isInstanceOf(RequiredParamsException.class);
+        assertThatThrownBy(() -> service.getList(UserFilter.builder()
+                        .createdFrom(Instant.parse("2024-02-01T00:00:00Z"))
+                        .createdTo(Instant.parse("2024-01-01T00:00:00Z"))
+                        .build(), 0, 20, null))
+                .isInstanceOf(RequiredParamsException.class);
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("getById")
+    void getByIdTest() {
+        when(repo.findById(user.getId())).thenReturn(Optional.of(user));
+
+        UserResponse res = service.getById(user.getId());
+
+        assertThat(res.getId()).isEqualTo(user.getId());
+        assertThat(res.getEmail()).isEqualTo("israel@example.com");
+    }
+
+    @Test
+    @DisplayName("getByIdNotFound")
+    void getByIdNotFoundTest() {
+        when(repo.findById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getById(id))
+                .isInstanceOf(NotFoundRecordException.class);
     }
 
     @Test
@@ -180,6 +236,7 @@ public class UserServiceTest {
 
         assertThat(out).isEqualTo(id);
         verify(repo).delete(user);
+        verify(tombstones).save(any(UserTombstoneEntity.class));
     }
 
     @Test
@@ -209,6 +266,90 @@ public class UserServiceTest {
         assertThat(Duration.between(since, nowMinus24h).abs()).isLessThanOrEqualTo(Duration.ofSeconds(5));
     }
 
+    // ---------------- getChanges ----------------
+
+    @Test
+    @DisplayName("getChangesMergesTombstones")
+    void getChangesMergesTombstonesTest() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        UserEntity first = getUserEntity("A", "A", "a@ex.com", true, 0L);
+        first.setUpdatedAt(t0);
+        UserEntity third = getUserEntity("C", "C", "c@ex.com", false, 1L);
+        third.setUpdatedAt(t0.plusSeconds(2));
+        UUID deletedId = UUID.randomUUID();
+
+        when(repo.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of(first, third));
+        when(tombstones.findDeletedAfter(any(), any(), any(), any()))
+                .thenReturn(List.of(new UserTombstoneEntity(deletedId, t0.plusSeconds(1))));
+
+        UserChangesResponse res = service.getChanges(null, 2);
+
+        assertThat(res.getItems()).hasSize(2);
+        assertThat(res.getItems().get(0).getId()).isEqualTo(first.getId());
+        assertThat(res.getItems().get(1).getType()).isEqualTo(UserChangeType.DELETED);
+        assertThat(res.getItems().get(1).getUser()).isNull();
+        assertThat(res.isHasMore()).isTrue();
+
+        ChangeToken next = ChangeToken.decode(res.getNextToken());
+        assertThat(next.changedAt()).isEqualTo(t0.plusSeconds(1));
+        assertThat(next.id()).isEqualTo(deletedId);
+    }
+
+    @Test
+    @DisplayName("getChangesEmptyAdvancesToken")
+    void getChangesEmptyAdvancesTokenTest() {
+        ChangeToken since = new ChangeToken(Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS), UUID.randomUUID());
+        when(repo.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of());
+        when(tombstones.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        UserChangesResponse res = service.getChanges(since.encode(), 100);
+
+        assertThat(res.getItems()).isEmpty();
+        assertThat(res.isHasMore()).isFalse();
+        // caught up: the token moves to the safety-lag horizon, so an idle consumer never ages past the retention
+        ChangeToken next = ChangeToken.decode(res.getNextToken());
+        assertThat(next.changedAt()).isAfter(since.changedAt());
+        assertThat(Duration.between(next.changedAt(), Instant.now())).isBetween(Duration.ofSeconds(2), Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("getChangesTokenFromTheFutureKept")
+    void getChangesTokenFromTheFutureKeptTest() {
+        String since = new ChangeToken(Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS), UUID.randomUUID()).encode();
+        when(repo.findChangedAfter(any(), any(), any(), any())).thenReturn(List.of());
+        when(tombstones.findDeletedAfter(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertThat(service.getChanges(since, 100).getNextToken()).isEqualTo(since);
+    }
+
+    @Test
+    @DisplayName("getChangesExpiredToken")
+    void getChangesExpiredTokenTest() {
+        String since = new ChangeToken(Instant.now().minus(8, ChronoUnit.DAYS), UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> service.getChanges(since, 10))
+                .isInstanceOf(UserException.class)
+                .extracting(e -> ((UserException) e).getStatus()).isEqualTo(410);
+    }
+
+    @Test
+    @DisplayName("getChangesOutOfRangeToken")
+    void getChangesOutOfRangeTokenTest() {
+        for (long micros : new long[]{Long.MAX_VALUE, -1}) {
+            ByteBuffer buf = ByteBuffer.allocate(24).putLong(micros).putLong(1).putLong(2);
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(buf.array());
+            assertThatThrownBy(() -> service.getChanges(token, 10))
+                    .isInstanceOf(RequiredParamsException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("getChangesInvalidToken")
+    void getChangesInvalidTokenTest() {
+        assertThatThrownBy(() -> service.getChanges("not-a-token", 10))
+                .isInstanceOf(InvalidChangeTokenException.class);
+    }
+
     private static UserEntity getUserEntity(
             String firstName, String lastName, String email,
             boolean active, Long version) {
@@ -0,0 +1,123 @@
+package com.example.user.service;
+
+import com.example.user.api.UserStatsResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "users.stats-stream.interval=10ms",
+        "users.stats-stream.heartbeat=10ms",
+        "users.stats-stream.send-timeout=300ms",
+        "users.stats-stream.sender-threads=1",
+        "server.tomcat.connection-timeout=3s"
+})
+@ActiveProfiles("test")
+public class UserStatsStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private UserService userService;
+
+    @Resource
+    private UserStatsStream statsStream;
+
+    @Resource
+    private MeterRegistry registry;
+
+    @TestConfiguration
+    static class SmallSocketBuffers {
+        // so a client that never reads stalls a write after a few KiB instead of megabytes
+        @Bean
+        TomcatConnectorCustomizer smallSendBuffer() {
+            return connector -> connector.setProperty("socket.txBufSize", "2048");
+        }
+    }
+
+    @Test
+    @DisplayName("clientThatNeverReadsIsDropped")
+    void clientThatNeverReadsIsDroppedTest() throws Exception {
+        // every refresh is a new frame
+        AtomicLong created = new AtomicLong();
+        when(userService.getStats()).thenAnswer(i -> UserStatsResponseDto.builder()
+                .createdLast24h(created.incrementAndGet()).build());
+
+        try (Socket stalled = open(); Socket healthy = open()) {
+            AtomicInteger frames = new AtomicInteger();
+            Thread reader = new Thread(() -> countFrames(healthy, frames), "healthy-stats-client");
+            reader.setDaemon(true);
+            reader.start();
+
+            // stalled never reads: once the socket buffers fill its write blocks the only sender thread
+            await(() -> registry.counter("users.stats.stream.evicted").count() >= 1, Duration.ofSeconds(30));
+            assertThat(statsStream.stalledWrites()).isEqualTo(1);
+
+            // the healthy client keeps getting frames from the sender added in place of the stuck one
+            int seen = frames.get();
+            await(() -> frames.get() >= seen + 10, Duration.ofSeconds(5));
+
+            // the connector's write timeout fails the stuck write and frees its sender and connection
+            await(() -> statsStream.stalledWrites() == 0, Duration.ofSeconds(10));
+            assertThat(statsStream.subscriberCount()).isEqualTo(1);
+            int after = frames.get();
+            await(() -> frames.get() >= after + 10, Duration.ofSeconds(5));
+        }
+        await(() -> statsStream.subscriberCount() == 0, Duration.ofSeconds(10));
+    }
+
+    private Socket open() throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", port));
+        socket.getOutputStream().write(("GET /api/users/stats/stream HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private static void countFrames(Socket socket, AtomicInteger frames) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            for (String line; (line = in.readLine()) != null; ) {
+                if (line.startsWith("data:")) {
+                    frames.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            // closed by the test
+        }
+    }
+
+    private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within " + timeout).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.user.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserWriteEpochTest {
+    @Autowired
+    UserWriteEpoch writeEpoch;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("tagMovesWithWritesFromAnyWriter")
+    void tagMovesWithWritesFromAnyWriterTest() {
+        String tag = writeEpoch.etag("j");
+        assertThat(tag).startsWith("\"").endsWith("-j\"");
+        assertThat(writeEpoch.etag("j")).isEqualTo(tag);
+        assertThat(writeEpoch.etag("c")).isNotEqualTo(tag);
+
+        // plain SQL stands in for another instance: nothing in this process hears about these writes
+        Instant now = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MICROS);
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                insert into users (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version)
+                values (?, 'Other', 'Writer', ?, 'x', true, ?, ?, 0)
+                """, id, id + "@example.org", Timestamp.from(now), Timestamp.from(now));
+        tag = moved(tag);
+
+        jdbc.update("update users set is_active = false, updated_at = ? where id = ?", Timestamp.from(now.plusSeconds(1)), id);
+        tag = moved(tag);
+
+        jdbc.update("""
+                insert into users_archive (id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version, archived_at)
+                select id, first_name, last_name, email, password_hash, is_active, created_at, updated_at, version, ? from users where id = ?
+                """, Timestamp.from(now.plusSeconds(2)), id);
+        jdbc.update("delete from users where id = ?", id);
+        tag = moved(tag);
+
+        jdbc.update("insert into user_tombstones (id, deleted_at) values (?, ?)", UUID.randomUUID(), Timestamp.from(now));
+        tag = moved(tag);
+
+        jdbc.update("delete from users_archive where id = ?", id);
+    }
+
+    private String moved(String before) {
+        String after = writeEpoch.etag("j");
+        assertThat(after).isNotEqualTo(before);
+        return after;
+    }
+}
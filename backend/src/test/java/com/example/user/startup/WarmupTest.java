@@ -0,0 +1,39 @@
+package com.example.user.startup;
+
+import com.example.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"users.warmup.enabled=true", "users.warmup.budget=500ms"})
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class WarmupTest {
+    @Autowired
+    MeterRegistry registry;
+    @Autowired
+    UserRepository repo;
+
+    @Test
+    @DisplayName("warmupRecordsLatencyAndRollsBack")
+    void warmupRecordsLatencyAndRollsBackTest() {
+        for (String path : new String[]{"insert", "search", "count", "password-policy", "to-response", "json"}) {
+            TimeGauge before = registry.get("users.warmup.latency").tags("path", path, "phase", "before").timeGauge();
+            TimeGauge after = registry.get("users.warmup.latency").tags("path", path, "phase", "after").timeGauge();
+            assertThat(before.value(TimeUnit.NANOSECONDS)).as(path).isPositive();
+            assertThat(after.value(TimeUnit.NANOSECONDS)).as(path).isPositive();
+        }
+        assertThat(repo.search("warmup", false, Pageable.unpaged()).getTotalElements())
+                .isZero();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.user.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class TracingTest {
+    private static final Path SPANS;
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    static {
+        try {
+            SPANS = Files.createTempDirectory("spans").resolve("spans.otlp.jsonl");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void tracing(DynamicPropertyRegistry registry) {
+        registry.add("users.tracing.enabled", () -> "true");
+        registry.add("users.tracing.sample-rate", () -> "0");
+        registry.add("users.tracing.file", SPANS::toString);
+        registry.add("users.tracing.flush-interval", () -> "10ms");
+    }
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    SpanExporter exporter;
+
+    @Test
+    @DisplayName("createTracedThroughAllStages")
+    void createTracedThroughAllStagesTest() throws Exception {
+        mvc.perform(post("/api/users")
+                        .with(csrf())
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"Israel","lastName":"Israeli","email":"traced@ex.com","password":"Secret1!"}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("traceparent", org.hamcrest.Matchers.startsWith("00-" + TRACE_ID + "-")));
+
+        List<JsonNode> spans = awaitSpans(6);
+        assertThat(spans).allSatisfy(s -> assertThat(s.get("traceId").asText()).isEqualTo(TRACE_ID));
+        assertThat(spans).extracting(s -> s.get("name").asText())
+                .contains("POST /api/users", "UserController.create", "UserService.create",
+                        "UserRepository.findByEmailIgnoreCase", "PasswordEncoder.encode", "serialize");
+        JsonNode root = spans.stream().filter(s -> s.get("name").asText().equals("POST /api/users")).findFirst().orElseThrow();
+        assertThat(root.get("parentSpanId").asText()).isEqualTo("00f067aa0ba902b7");
+    }
+
+    @Test
+    @DisplayName("unsampledRequestExportsNothing")
+    void unsampledRequestExportsNothingTest() throws Exception {
+        long before = exporter.getExported();
+        mvc.perform(post("/api/users")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"Israel","lastName":"Israeli","email":"untraced@ex.com","password":"Secret1!"}
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("traceparent"));
+        String unsampledParent = "00-" + TRACE_ID + "-00f067aa0ba902b7-00";
+        mvc.perform(get("/api/users/stats").header("traceparent", unsampledParent))
+                .andExpect(status().isOk())
+                .andExpect(header().string("traceparent", unsampledParent));
+        Thread.sleep(100);
+        assertThat(exporter.getExported()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("unsampledRootAllocatesNothing")
+    void unsampledRootAllocatesNothingTest() {
+        Tracer unsampled = new Tracer(exporter, 0);
+        String parent = "00-" + TRACE_ID + "-00f067aa0ba902b7-00";
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 20_000; i++) {
+            unsampled.startRequest("GET", i % 2 == 0 ? null : parent);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int started = 0;
+        for (int i = 0; i < 20_000; i++) {
+            started += unsampled.startRequest("GET", i % 2 == 0 ? null : parent) != null ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(started).isZero();
+        assertThat(Tracer.current()).isNull();
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private List<JsonNode> awaitSpans(int atLeast) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> spans = new ArrayList<>();
+        for (int attempt = 0; attempt < 100 && spans.size() < atLeast; attempt++) {
+            Thread.sleep(50);
+            spans.clear();
+            if (Files.exists(SPANS)) {
+                for (String line : Files.readAllLines(SPANS)) {
+                    JsonNode request = mapper.readTree(line);
+                    request.at("/resourceSpans/0/scopeSpans/0/spans").forEach(spans::add);
+                }
+            }
+        }
+        return spans;
+    }
+}